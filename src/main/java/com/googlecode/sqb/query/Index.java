@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2012 4th Line GmbH, Switzerland
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.googlecode.sqb.query;
+
+public class Index {
+
+    protected final String name;
+    protected final Table table;
+    protected final Column[] columns;
+    protected final boolean unique;
+
+    public Index(String name, Table table, Column... columns) {
+        this(name, table, false, columns);
+    }
+
+    /**
+     * @param columns The indexed columns in order, a composite index is used by queries
+     *                restricting or sorting on a prefix of these columns. Append the
+     *                other columns a query reads to make it a covering index.
+     */
+    public Index(String name, Table table, boolean unique, Column... columns) {
+        if (columns.length == 0)
+            throw new IllegalArgumentException("Index must have at least one column: " + name);
+        this.name = name;
+        this.table = table;
+        this.unique = unique;
+        this.columns = columns;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Column[] getColumns() {
+        return columns;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
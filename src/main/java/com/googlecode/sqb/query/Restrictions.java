@@ -45,6 +45,18 @@ public class Restrictions {
         return new BinaryRestrictionImpl(BinaryOperator.EQUAL, left, right);
     }
 
+    public static Restriction lt(Projection left, String right) {
+        return new BinaryRestrictionImpl(BinaryOperator.LESS_THAN, left, new StringExpression(right));
+    }
+
+    public static Restriction gt(Projection left, String right) {
+        return new BinaryRestrictionImpl(BinaryOperator.GREATER_THAN, left, new StringExpression(right));
+    }
+
+    public static Restriction match(Projection left, String right) {
+        return new BinaryRestrictionImpl(BinaryOperator.MATCH, left, new StringExpression(right));
+    }
+
     public static Restriction in(Projection left, Set<String> right) {
         final Set<Expression> expressions = new HashSet<Expression>();
         for (String s : right) {
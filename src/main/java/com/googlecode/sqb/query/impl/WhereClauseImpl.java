@@ -27,7 +27,7 @@ public class WhereClauseImpl implements WhereClause {
             this.restriction = restriction;
             return;
         }
-        restriction = Restrictions.and(this.restriction, restriction);
+        this.restriction = Restrictions.and(this.restriction, restriction);
     }
 
     @Override
@@ -20,7 +20,10 @@ public enum BinaryOperator implements Operator {
     OR("OR"),
     EQUAL("="),
     NOT_EQUAL("<>"),
-    IN("IN"),;
+    LESS_THAN("<"),
+    GREATER_THAN(">"),
+    IN("IN"),
+    MATCH("MATCH"),;
 
     private final String sql;
 
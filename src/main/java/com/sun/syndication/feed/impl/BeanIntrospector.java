@@ -22,6 +22,7 @@ import com.sun.syndication.feed.impl.PropertyDescriptor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Obtains all property descriptors from a bean (interface or implementation).
@@ -33,9 +34,11 @@ import java.util.*;
  */
 public class BeanIntrospector {
 
-    private static final Map _introspected = new HashMap();
+    private static final Map _introspected = new ConcurrentHashMap();
+    private static final Map _readable = new ConcurrentHashMap();
+    private static final Map _readWrite = new ConcurrentHashMap();
 
-    public static synchronized PropertyDescriptor[] getPropertyDescriptors(Class klass) throws RuntimeException {
+    public static PropertyDescriptor[] getPropertyDescriptors(Class klass) throws RuntimeException {
         PropertyDescriptor[] descriptors = (PropertyDescriptor[]) _introspected.get(klass);
         if (descriptors == null) {
             descriptors = getPDs(klass);
@@ -44,6 +47,57 @@ public class BeanIntrospector {
         return descriptors;
     }
 
+    /**
+     * Returns the properties the bean helpers work on: the ones with a getter that takes no
+     * parameters and is not declared by Object, in the order of getPropertyDescriptors().
+     * <p/>
+     * The table is computed once per class, the array is shared and must not be modified.
+     * <p/>
+     *
+     * @param klass class to get the properties for.
+     * @return the readable properties of the class.
+     */
+    public static PropertyDescriptor[] getReadableProperties(Class klass) throws RuntimeException {
+        PropertyDescriptor[] readable = (PropertyDescriptor[]) _readable.get(klass);
+        if (readable == null) {
+            readable = filter(getPropertyDescriptors(klass), false);
+            _readable.put(klass, readable);
+        }
+        return readable;
+    }
+
+    /**
+     * Returns the readable properties that also have a setter, see getReadableProperties().
+     * <p/>
+     *
+     * @param klass class to get the properties for.
+     * @return the read/write properties of the class.
+     */
+    public static PropertyDescriptor[] getReadWriteProperties(Class klass) throws RuntimeException {
+        PropertyDescriptor[] readWrite = (PropertyDescriptor[]) _readWrite.get(klass);
+        if (readWrite == null) {
+            readWrite = filter(getPropertyDescriptors(klass), true);
+            _readWrite.put(klass, readWrite);
+        }
+        return readWrite;
+    }
+
+    private static PropertyDescriptor[] filter(PropertyDescriptor[] pds, boolean writable) {
+        List filtered = new ArrayList();
+        for (int i = 0; i < pds.length; i++) {
+            Method pReadMethod = pds[i].getReadMethod();
+            if (pReadMethod != null &&                              // ensure it has a getter method
+                pReadMethod.getDeclaringClass() != Object.class &&  // filter Object.class getter methods
+                pReadMethod.getParameterTypes().length == 0 &&      // filter getter methods that take parameters
+                (!writable || pds[i].getWriteMethod() != null)) {
+                filtered.add(pds[i]);
+            }
+        }
+        PropertyDescriptor[] array = new PropertyDescriptor[filtered.size()];
+        filtered.toArray(array);
+        return array;
+    }
+
     private static PropertyDescriptor[] getPDs(Class klass) throws RuntimeException {
         Method[] methods = klass.getMethods();
         Map getters = getPDs(methods, false);
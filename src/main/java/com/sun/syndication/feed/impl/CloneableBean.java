@@ -22,6 +22,7 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides deep <b>Bean</b> clonning support.
@@ -126,20 +127,13 @@ public class CloneableBean implements Serializable, Cloneable {
         Object clonedBean;
         try {
             clonedBean = _obj.getClass().newInstance();
-            PropertyDescriptor[] pds = BeanIntrospector.getPropertyDescriptors(_obj.getClass());
-            if (pds!=null) {
-                for (int i=0;i<pds.length;i++) {
-                    Method pReadMethod = pds[i].getReadMethod();
-                    Method pWriteMethod = pds[i].getWriteMethod();
-                    if (pReadMethod!=null && pWriteMethod!=null &&       // ensure it has getter and setter methods
-                        !_ignoreProperties.contains(pds[i].getName()) && // is not in the list of properties to ignore
-                        pReadMethod.getDeclaringClass()!=Object.class && // filter Object.class getter methods
-                        pReadMethod.getParameterTypes().length==0) {     // filter getter methods that take parameters
-                        Object value = pReadMethod.invoke(_obj,NO_PARAMS);
-                        if (value!=null) {
-                            value = doClone(value);
-                            pWriteMethod.invoke(clonedBean,new Object[]{value});
-                        }
+            PropertyDescriptor[] pds = BeanIntrospector.getReadWriteProperties(_obj.getClass());
+            for (int i=0;i<pds.length;i++) {
+                if (!_ignoreProperties.contains(pds[i].getName())) { // is not in the list of properties to ignore
+                    Object value = pds[i].getReadMethod().invoke(_obj,NO_PARAMS);
+                    if (value!=null) {
+                        value = doClone(value);
+                        pds[i].getWriteMethod().invoke(clonedBean,new Object[]{value});
                     }
                 }
             }
@@ -175,7 +169,7 @@ public class CloneableBean implements Serializable, Cloneable {
             }
             else
             if (value instanceof Cloneable) {
-                Method cloneMethod = vClass.getMethod("clone",NO_PARAMS_DEF);
+                Method cloneMethod = getCloneMethod(vClass);
                 if (Modifier.isPublic(cloneMethod.getModifiers())) {
                    value = cloneMethod.invoke(value,NO_PARAMS);
                 }
@@ -190,6 +184,17 @@ public class CloneableBean implements Serializable, Cloneable {
         return value;
     }
 
+    private static final Map CLONE_METHODS = new ConcurrentHashMap();
+
+    private static Method getCloneMethod(Class vClass) throws NoSuchMethodException {
+        Method cloneMethod = (Method) CLONE_METHODS.get(vClass);
+        if (cloneMethod==null) {
+            cloneMethod = vClass.getMethod("clone",NO_PARAMS_DEF);
+            CLONE_METHODS.put(vClass,cloneMethod);
+        }
+        return cloneMethod;
+    }
+
     private Object cloneArray(Object array) throws Exception {
         Class elementClass = array.getClass().getComponentType();
         int length = Array.getLength(array);
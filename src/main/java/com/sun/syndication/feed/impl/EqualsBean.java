@@ -26,7 +26,7 @@ import java.lang.reflect.Method;
  * It works on all read/write properties, recursively. It support all primitive types, Strings, Collections,
  * bean-like objects and multi-dimensional arrays of any of them.
  * <p>
- * The hashcode is calculated by getting the hashcode of the Bean String representation.
+ * The hashcode is calculated from the hashcodes of the property values, like equals() compares them.
  * <p>
  * @author Alejandro Abdelnur
  *
@@ -34,6 +34,7 @@ import java.lang.reflect.Method;
 public class EqualsBean implements Serializable {
 
     private static final Object[] NO_PARAMS = new Object[0];
+    private static final String FOREIGN_MARKUP = "foreignMarkup";
 
     private Class _beanClass;
     private Object _obj;
@@ -135,18 +136,12 @@ public class EqualsBean implements Serializable {
                 else {
                     eq = true;
                     try {
-                        PropertyDescriptor[] pds = BeanIntrospector.getPropertyDescriptors(_beanClass);
-                        if (pds!=null) {
-                            for (int i = 0; eq && i<pds.length; i++) {
-                                Method pReadMethod = pds[i].getReadMethod();
-                                if (pReadMethod!=null && // ensure it has a getter method
-                                        pReadMethod.getDeclaringClass()!=Object.class && // filter Object.class getter methods
-                                        pReadMethod.getParameterTypes().length==0) {     // filter getter methods that take parameters
-                                    Object value1 = pReadMethod.invoke(bean1, NO_PARAMS);
-                                    Object value2 = pReadMethod.invoke(bean2, NO_PARAMS);
-                                    eq = doEquals(value1, value2);
-                                }
-                            }
+                        PropertyDescriptor[] pds = BeanIntrospector.getReadableProperties(_beanClass);
+                        for (int i = 0; eq && i<pds.length; i++) {
+                            Method pReadMethod = pds[i].getReadMethod();
+                            Object value1 = pReadMethod.invoke(bean1, NO_PARAMS);
+                            Object value2 = pReadMethod.invoke(bean2, NO_PARAMS);
+                            eq = doEquals(value1, value2);
                         }
                     }
                     catch (Exception ex) {
@@ -162,7 +157,7 @@ public class EqualsBean implements Serializable {
      * <p>
      * It follows the contract defined by the Object hashCode() method.
      * <p>
-     * The hashcode is calculated by getting the hashcode of the Bean String representation.
+     * The hashcode is calculated from the hashcodes of the property values.
      * <p>
      * To be used by classes extending EqualsBean. Although it works also for classes using
      * EqualsBean in a delegation pattern, for correctness those classes should use the
@@ -180,7 +175,9 @@ public class EqualsBean implements Serializable {
      * <p>
      * It follows the contract defined by the Object hashCode() method.
      * <p>
-     * The hashcode is calculated by getting the hashcode of the Bean String representation.
+     * The hashcode is calculated from the hashcodes of the property values, arrays element by element.
+     * Foreign markup is left out, the beans having it leave it out of equals() as JDOM nodes are only
+     * equal to themselves.
      * <p>
      * To be used by classes using EqualsBean in a delegation pattern,
      * @see #EqualsBean(Class,Object) constructor.
@@ -189,7 +186,35 @@ public class EqualsBean implements Serializable {
      *
      */
     public int beanHashCode() {
-        return _obj.toString().hashCode();
+        int hash = 1;
+        try {
+            PropertyDescriptor[] pds = BeanIntrospector.getReadableProperties(_beanClass);
+            for (int i = 0; i<pds.length; i++) {
+                if (!FOREIGN_MARKUP.equals(pds[i].getName())) {
+                    Object value = pds[i].getReadMethod().invoke(_obj, NO_PARAMS);
+                    hash = 31 * hash + doHashCode(value);
+                }
+            }
+        }
+        catch (Exception ex) {
+            throw new RuntimeException("Could not execute hashCode()", ex);
+        }
+        return hash;
+    }
+
+    private int doHashCode(Object obj) {
+        if (obj==null) {
+            return 0;
+        }
+        if (obj.getClass().isArray()) {
+            int hash = 1;
+            int length = Array.getLength(obj);
+            for (int i = 0; i<length; i++) {
+                hash = 31 * hash + doHashCode(Array.get(obj, i));
+            }
+            return hash;
+        }
+        return obj.hashCode();
     }
 
 
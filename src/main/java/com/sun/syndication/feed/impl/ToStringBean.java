@@ -18,7 +18,6 @@ package com.sun.syndication.feed.impl;
 
 import java.io.Serializable;
 import java.lang.reflect.Array;
-import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
@@ -125,18 +124,10 @@ public class ToStringBean implements Serializable {
     private String toString(String prefix) {
         StringBuffer sb = new StringBuffer(128);
         try {
-            PropertyDescriptor[] pds = BeanIntrospector.getPropertyDescriptors(_beanClass);
-            if (pds!=null) {
-                for (int i=0;i<pds.length;i++) {
-                    String pName = pds[i].getName();
-                    Method pReadMethod = pds[i].getReadMethod();
-                    if (pReadMethod!=null &&                             // ensure it has a getter method
-                        pReadMethod.getDeclaringClass()!=Object.class && // filter Object.class getter methods
-                        pReadMethod.getParameterTypes().length==0) {     // filter getter methods that take parameters
-                        Object value = pReadMethod.invoke(_obj,NO_PARAMS);
-                        printProperty(sb,prefix+"."+pName,value);
-                    }
-                }
+            PropertyDescriptor[] pds = BeanIntrospector.getReadableProperties(_beanClass);
+            for (int i=0;i<pds.length;i++) {
+                Object value = pds[i].getReadMethod().invoke(_obj,NO_PARAMS);
+                printProperty(sb,prefix+"."+pds[i].getName(),value);
             }
         }
         catch (Exception ex) {
@@ -42,6 +42,12 @@ public class SyndEntryImpl implements Serializable,SyndEntry {
     private List<SyndLink> _links;
     private List<SyndContent> _contents; // deprecated by Atom 1.0
     private List<Module> _modules;
+
+    // The DC module backs the convenience properties, it's looked up again only if the
+    // module list has been replaced or changed size, or the module isn't where it was
+    private transient DCModule _dcModule;
+    private transient int _dcModuleIndex;
+    private transient int _dcModulesSize;
     private List<SyndEnclosure> _enclosures;
     private List<SyndPerson> _authors;
     private List<SyndPerson> _contributors;
@@ -365,12 +371,7 @@ public class SyndEntryImpl implements Serializable,SyndEntry {
      *
      */
     public List<Module> getModules() {
-        if  (_modules==null) {
-            _modules=new ArrayList<Module>();
-        }
-        if (ModuleUtils.getModule(_modules,DCModule.URI)==null) {
-            _modules.add(new DCModuleImpl());
-        }
+        getDCModule();
         return _modules;
     }
 
@@ -383,6 +384,7 @@ public class SyndEntryImpl implements Serializable,SyndEntry {
      */
     public void setModules(List<Module> modules) {
         _modules = modules;
+        _dcModule = null;
     }
 
     /**
@@ -401,7 +403,26 @@ public class SyndEntryImpl implements Serializable,SyndEntry {
      *
      */
     private DCModule getDCModule() {
-        return (DCModule) getModule(DCModule.URI);
+        if (_dcModule!=null && _modules.size()==_dcModulesSize && _modules.get(_dcModuleIndex)==_dcModule) {
+            return _dcModule;
+        }
+        if  (_modules==null) {
+            _modules=new ArrayList<Module>();
+        }
+        _dcModule = null;
+        for (int i=0;_dcModule==null && i<_modules.size();i++) {
+            if (DCModule.URI.equals(_modules.get(i).getUri())) {
+                _dcModule = (DCModule) _modules.get(i);
+                _dcModuleIndex = i;
+            }
+        }
+        if (_dcModule==null) {
+            _dcModule = new DCModuleImpl();
+            _dcModuleIndex = _modules.size();
+            _modules.add(_dcModule);
+        }
+        _dcModulesSize = _modules.size();
+        return _dcModule;
     }
 
     public Class getInterface() {
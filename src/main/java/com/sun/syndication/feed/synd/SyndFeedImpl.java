@@ -50,12 +50,19 @@ public class SyndFeedImpl implements Serializable, SyndFeed {
     private SyndImage _image;
     private List      _entries;
     private List      _modules;
+
+    // The DC module backs the convenience properties, it's looked up again only if the
+    // module list has been replaced or changed size, or the module isn't where it was
+    private transient DCModule _dcModule;
+    private transient int _dcModuleIndex;
+    private transient int _dcModulesSize;
     private List      _authors;
     private List      _contributors;
     private List      _foreignMarkup;
     
     private WireFeed wireFeed = null;
     private boolean preserveWireFeed = false;
+    private boolean lazyEntries = false;
 
     private static final Converters CONVERTERS = new Converters();
 
@@ -128,8 +135,26 @@ public class SyndFeedImpl implements Serializable, SyndFeed {
      * @param feed
      * @param preserveWireFeed
      */
-    public SyndFeedImpl(WireFeed feed, boolean preserveWireFeed) {    	
+    public SyndFeedImpl(WireFeed feed, boolean preserveWireFeed) {
+        this(feed, preserveWireFeed, false);
+    }
+
+    /**
+     * Creates a SyndFeedImpl and populates all its properties out of the
+     * given RSS Channel or Atom Feed properties, optionally converting the entries
+     * only when they are accessed.
+     * <p>
+     * Lazily converted entries are created from the items of the given feed as they
+     * are read from the entries list, the feed must not be changed until then.
+     * <p>
+     * @param feed the RSS Channel or the Atom Feed to populate the properties from.
+     * @param preserveWireFeed keeps the WireFeed for access via the originalWireFeed() method.
+     * @param lazyEntries converts entries on first access.
+     *
+     */
+    public SyndFeedImpl(WireFeed feed, boolean preserveWireFeed, boolean lazyEntries) {
         this(SyndFeed.class,IGNORE_PROPERTIES);
+        this.lazyEntries = lazyEntries;
 
     	if (preserveWireFeed) {    		
     		this.wireFeed = feed;
@@ -614,12 +639,7 @@ public class SyndFeedImpl implements Serializable, SyndFeed {
      *
      */
     public List getModules() {
-        if  (_modules==null) {
-            _modules=new ArrayList();
-        }
-        if (ModuleUtils.getModule(_modules,DCModule.URI)==null) {
-            _modules.add(new DCModuleImpl());
-        }
+        getDCModule();
         return _modules;
     }
 
@@ -633,6 +653,7 @@ public class SyndFeedImpl implements Serializable, SyndFeed {
      */
     public void setModules(List modules) {
         _modules = modules;
+        _dcModule = null;
     }
 
     /**
@@ -651,7 +672,26 @@ public class SyndFeedImpl implements Serializable, SyndFeed {
      *
      */
     private DCModule getDCModule() {
-        return (DCModule) getModule(DCModule.URI);
+        if (_dcModule!=null && _modules.size()==_dcModulesSize && _modules.get(_dcModuleIndex)==_dcModule) {
+            return _dcModule;
+        }
+        if  (_modules==null) {
+            _modules=new ArrayList();
+        }
+        _dcModule = null;
+        for (int i=0;_dcModule==null && i<_modules.size();i++) {
+            if (DCModule.URI.equals(((Module) _modules.get(i)).getUri())) {
+                _dcModule = (DCModule) _modules.get(i);
+                _dcModuleIndex = i;
+            }
+        }
+        if (_dcModule==null) {
+            _dcModule = new DCModuleImpl();
+            _dcModuleIndex = _modules.size();
+            _modules.add(_dcModule);
+        }
+        _dcModulesSize = _modules.size();
+        return _dcModule;
     }
 
     public Class getInterface() {
@@ -769,4 +809,13 @@ public class SyndFeedImpl implements Serializable, SyndFeed {
 	public boolean isPreservingWireFeed() {		
 		return preserveWireFeed;
 	}
+
+	/**
+	 * Indicates if the entries of the WireFeed given in the constructor are converted on access.
+	 * <p>
+	 * @return <b>true</b> if the entries are converted on access.
+	 */
+	public boolean isLazyEntries() {
+		return lazyEntries;
+	}
 }
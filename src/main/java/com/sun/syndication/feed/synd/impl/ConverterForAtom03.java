@@ -100,7 +100,12 @@ public class ConverterForAtom03 implements Converter {
 
         List aEntries = aFeed.getEntries();
         if (aEntries!=null) {
-            syndFeed.setEntries(createSyndEntries(aEntries, syndFeed.isPreservingWireFeed()));
+            if (LazySyndEntries.isRequested(syndFeed)) {
+                syndFeed.setEntries(createLazySyndEntries(aEntries, syndFeed.isPreservingWireFeed()));
+            }
+            else {
+                syndFeed.setEntries(createSyndEntries(aEntries, syndFeed.isPreservingWireFeed()));
+            }
         }
 
         // Core Atom language/author/copyright/modified elements have precedence
@@ -157,6 +162,14 @@ public class ConverterForAtom03 implements Converter {
         return syndEntries;
     }
 
+    protected List createLazySyndEntries(List atomEntries, final boolean preserveWireItems) {
+        return new LazySyndEntries(atomEntries, new LazySyndEntries.EntryConverter() {
+            public SyndEntry createSyndEntry(Object entry) {
+                return ConverterForAtom03.this.createSyndEntry((Entry) entry, preserveWireItems);
+            }
+        });
+    }
+
     protected SyndEntry createSyndEntry(Entry entry, boolean preserveWireItem) {
         SyndEntryImpl syndEntry = new SyndEntryImpl();
         if (preserveWireItem) {
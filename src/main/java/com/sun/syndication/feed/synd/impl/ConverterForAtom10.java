@@ -111,7 +111,12 @@ public class ConverterForAtom10 implements Converter {
             
         List aEntries = aFeed.getEntries();
         if (aEntries!=null) {
-            syndFeed.setEntries(createSyndEntries(aFeed, aEntries, syndFeed.isPreservingWireFeed()));
+            if (LazySyndEntries.isRequested(syndFeed)) {
+                syndFeed.setEntries(createLazySyndEntries(aFeed, aEntries, syndFeed.isPreservingWireFeed()));
+            }
+            else {
+                syndFeed.setEntries(createSyndEntries(aFeed, aEntries, syndFeed.isPreservingWireFeed()));
+            }
         }
 
         // Core Atom language/author/copyright/modified elements have precedence
@@ -157,6 +162,14 @@ public class ConverterForAtom10 implements Converter {
         return syndEntries;
     }
 
+    protected List createLazySyndEntries(final Feed feed, List atomEntries, final boolean preserveWireItems) {
+        return new LazySyndEntries(atomEntries, new LazySyndEntries.EntryConverter() {
+            public SyndEntry createSyndEntry(Object entry) {
+                return ConverterForAtom10.this.createSyndEntry(feed, (Entry) entry, preserveWireItems);
+            }
+        });
+    }
+
     protected SyndEntry createSyndEntry(Feed feed, Entry entry, boolean preserveWireItem) {
     	SyndEntryImpl syndEntry = new SyndEntryImpl();
     	if (preserveWireItem) {
@@ -61,7 +61,12 @@ public class ConverterForRSS090 implements Converter {
 
         List items = channel.getItems();
         if (items!=null) {
-            syndFeed.setEntries(createSyndEntries(items, syndFeed.isPreservingWireFeed()));
+            if (LazySyndEntries.isRequested(syndFeed)) {
+                syndFeed.setEntries(createLazySyndEntries(items, syndFeed.isPreservingWireFeed()));
+            }
+            else {
+                syndFeed.setEntries(createSyndEntries(items, syndFeed.isPreservingWireFeed()));
+            }
         }
     }
 
@@ -81,6 +86,14 @@ public class ConverterForRSS090 implements Converter {
         return syndEntries;
     }
 
+    protected List createLazySyndEntries(List rssItems, final boolean preserveWireItems) {
+        return new LazySyndEntries(rssItems, new LazySyndEntries.EntryConverter() {
+            public SyndEntry createSyndEntry(Object item) {
+                return ConverterForRSS090.this.createSyndEntry((Item) item, preserveWireItems);
+            }
+        });
+    }
+
     protected SyndEntry createSyndEntry(Item item, boolean preserveWireItem) {
     	SyndEntryImpl syndEntry = new SyndEntryImpl();
     	if (preserveWireItem) {
@@ -0,0 +1,109 @@
+package com.sun.syndication.feed.synd.impl;
+
+import com.sun.syndication.feed.synd.SyndEntry;
+import com.sun.syndication.feed.synd.SyndFeed;
+import com.sun.syndication.feed.synd.SyndFeedImpl;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry list of a SyndFeed that converts each entry of the wire feed when it is first accessed.
+ * <p>
+ * Readers that only look at some entries, or stop early, don't pay for converting the others.
+ * Entries added or set are kept as they are. Serialization writes a plain list of converted
+ * entries, a clone made by CloneableBean converts all entries.
+ * <p>
+ * Like ArrayList, the list is not thread safe, and that includes reads.
+ * <p>
+ */
+public class LazySyndEntries extends AbstractList implements Serializable {
+
+    /**
+     * Converts one entry of the wire feed, an RSS Item or an Atom Entry.
+     */
+    public interface EntryConverter {
+        SyndEntry createSyndEntry(Object wireEntry);
+    }
+
+    private static final class Pending {
+        final Object wireEntry;
+
+        Pending(Object wireEntry) {
+            this.wireEntry = wireEntry;
+        }
+    }
+
+    private final ArrayList _entries;
+    private final EntryConverter _converter;
+
+    /**
+     * Creates an empty list, used when cloning.
+     */
+    public LazySyndEntries() {
+        _entries = new ArrayList();
+        _converter = null;
+    }
+
+    /**
+     * Creates a list of wire feed entries to be converted on access.
+     * <p>
+     * @param wireEntries the RSS Items or Atom Entries, the list is copied.
+     * @param converter converts a wire feed entry into a SyndEntry.
+     */
+    public LazySyndEntries(List wireEntries, EntryConverter converter) {
+        _entries = new ArrayList(wireEntries.size());
+        for (int i = 0; i < wireEntries.size(); i++) {
+            _entries.add(new Pending(wireEntries.get(i)));
+        }
+        _converter = converter;
+    }
+
+    /**
+     * Tells if a SyndFeed being populated from a wire feed wants its entries converted on access.
+     * <p>
+     * @param syndFeed the SyndFeed being populated.
+     * @return <b>true</b> if the converter should set a LazySyndEntries list.
+     */
+    public static boolean isRequested(SyndFeed syndFeed) {
+        return (syndFeed instanceof SyndFeedImpl) && ((SyndFeedImpl) syndFeed).isLazyEntries();
+    }
+
+    public Object get(int index) {
+        Object entry = _entries.get(index);
+        if (entry instanceof Pending) {
+            entry = _converter.createSyndEntry(((Pending) entry).wireEntry);
+            _entries.set(index, entry);
+        }
+        return entry;
+    }
+
+    public int size() {
+        return _entries.size();
+    }
+
+    public Object set(int index, Object element) {
+        Object previous = get(index);
+        _entries.set(index, element);
+        return previous;
+    }
+
+    public void add(int index, Object element) {
+        _entries.add(index, element);
+        modCount++;
+    }
+
+    public Object remove(int index) {
+        Object previous = get(index);
+        _entries.remove(index);
+        modCount++;
+        return previous;
+    }
+
+    private Object writeReplace() {
+        return new ArrayList(this);
+    }
+
+}
@@ -1,7 +1,9 @@
 package com.sun.syndication.io;
 
 import org.jdom.JDOMException;
+import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
 
 /*
  *  This code is needed to fix the security problem outlined in http://www.securityfocus.com/archive/1/297714
@@ -16,12 +18,39 @@ import org.xml.sax.XMLReader;
  */
 public class SAXBuilder extends org.jdom.input.SAXBuilder {
 
+	private static final DefaultHandler2 NO_HANDLER = new DefaultHandler2();
+
+	private XMLReader _parser;
+
 	public SAXBuilder(boolean _validate) {
 		super(_validate);
 	}
 
 	public XMLReader createParser() throws JDOMException {
-		return super.createParser();
+		_parser = super.createParser();
+		return _parser;
 	}
-	
+
+	/**
+	 * Detaches the handlers of the last build from the SAX parser JDOM keeps for reuse, so
+	 * the parser doesn't hold on to the last document. Every build sets its own handlers.
+	 */
+	void reset() {
+		if (_parser == null) {
+			return;
+		}
+		_parser.setContentHandler(NO_HANDLER);
+		_parser.setDTDHandler(NO_HANDLER);
+		try {
+			_parser.setProperty("http://xml.org/sax/properties/lexical-handler", NO_HANDLER);
+		} catch (SAXException e) {
+			// ignore, not supported by the parser
+		}
+		try {
+			_parser.setProperty("http://xml.org/sax/properties/declaration-handler", NO_HANDLER);
+		} catch (SAXException e) {
+			// ignore, not supported by the parser
+		}
+	}
+
 }
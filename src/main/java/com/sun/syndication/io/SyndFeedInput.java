@@ -38,6 +38,7 @@ import java.io.Reader;
 public class SyndFeedInput {
     private WireFeedInput _feedInput;
     private boolean preserveWireFeed = false;
+    private boolean lazyEntries = false;
 
     /**
      * Creates a SyndFeedInput instance with input validation turned off.
@@ -107,7 +108,7 @@ public class SyndFeedInput {
      *
      */
     public SyndFeed build(File file) throws FileNotFoundException,IOException,IllegalArgumentException,FeedException {
-        return new SyndFeedImpl(_feedInput.build(file), preserveWireFeed);
+        return new SyndFeedImpl(_feedInput.build(file), preserveWireFeed, lazyEntries);
     }
 
     /**
@@ -120,7 +121,7 @@ public class SyndFeedInput {
      *
      */
     public SyndFeed build(Reader reader) throws IllegalArgumentException,FeedException {
-        return new SyndFeedImpl(_feedInput.build(reader), preserveWireFeed);
+        return new SyndFeedImpl(_feedInput.build(reader), preserveWireFeed, lazyEntries);
     }
 
     /**
@@ -133,7 +134,7 @@ public class SyndFeedInput {
      *
      */
     public SyndFeed build(InputSource is) throws IllegalArgumentException,FeedException {
-        return new SyndFeedImpl(_feedInput.build(is), preserveWireFeed);
+        return new SyndFeedImpl(_feedInput.build(is), preserveWireFeed, lazyEntries);
     }
 
     /**
@@ -146,7 +147,7 @@ public class SyndFeedInput {
      *
      */
     public SyndFeed build(org.w3c.dom.Document document) throws IllegalArgumentException,FeedException {
-        return new SyndFeedImpl(_feedInput.build(document), preserveWireFeed);
+        return new SyndFeedImpl(_feedInput.build(document), preserveWireFeed, lazyEntries);
     }
 
     /**
@@ -159,7 +160,7 @@ public class SyndFeedInput {
      *
      */
     public SyndFeed build(Document document) throws IllegalArgumentException,FeedException {
-        return new SyndFeedImpl(_feedInput.build(document), preserveWireFeed);
+        return new SyndFeedImpl(_feedInput.build(document), preserveWireFeed, lazyEntries);
     }
 
     /**
@@ -178,4 +179,20 @@ public class SyndFeedInput {
 		this.preserveWireFeed = preserveWireFeed;
 	}
 
+	/**
+	 *
+	 * @return true if the entries of the SyndFeed are converted when they are accessed. False by default.
+	 */
+	public boolean isLazyEntries() {
+		return lazyEntries;
+	}
+
+	/**
+	 *
+	 * @param lazyEntries set to true to convert the entries of the SyndFeed only when they are accessed. False by default.
+	 */
+	public void setLazyEntries(boolean lazyEntries) {
+		this.lazyEntries = lazyEntries;
+	}
+
 }
@@ -23,8 +23,6 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 import org.jdom.Document;
 import org.jdom.JDOMException;
@@ -37,6 +35,7 @@ import org.xml.sax.SAXNotSupportedException;
 import org.xml.sax.XMLReader;
 
 import com.sun.syndication.feed.WireFeed;
+import com.sun.syndication.io.impl.ClassLoaderMap;
 import com.sun.syndication.io.impl.FeedParsers;
 import com.sun.syndication.io.impl.XmlFixerReader;
 
@@ -54,20 +53,20 @@ import com.sun.syndication.io.impl.XmlFixerReader;
  */
 public class WireFeedInput {
 
-    private static Map clMap = new WeakHashMap();
+    private static final ClassLoaderMap clMap = new ClassLoaderMap();
 
     private static FeedParsers getFeedParsers() {
-        synchronized(WireFeedInput.class) {
-            FeedParsers parsers = (FeedParsers)
-                clMap.get(Thread.currentThread().getContextClassLoader());
-            if (parsers == null) {
-                parsers = new FeedParsers();
-                clMap.put(Thread.currentThread().getContextClassLoader(), parsers);
-            }
-            return parsers;
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        FeedParsers parsers = (FeedParsers) clMap.get(classLoader);
+        if (parsers == null) {
+            parsers = (FeedParsers) clMap.putIfAbsent(classLoader, new FeedParsers());
         }
+        return parsers;
     }
 
+    // Configuring a builder and its SAX parser costs more than many small feeds, reuse them per thread
+    private static final ThreadLocal SAX_BUILDERS = new ThreadLocal();
+
     private static final InputSource EMPTY_INPUTSOURCE = new InputSource(new ByteArrayInputStream(new byte[0]));
     private static final EntityResolver RESOLVER = new EmptyEntityResolver();
 
@@ -186,7 +185,7 @@ public class WireFeedInput {
      *
      */
     public WireFeed build(Reader reader) throws IllegalArgumentException,FeedException {
-    	SAXBuilder saxBuilder = createSAXBuilder();
+    	SAXBuilder saxBuilder = getSAXBuilder();
         try {
             if (_xmlHealerOn) {
                 reader = new XmlFixerReader(reader);
@@ -203,6 +202,9 @@ public class WireFeedInput {
         catch (Exception ex) {
             throw new ParsingFeedException("Invalid XML",ex);
         }
+        finally {
+            saxBuilder.reset();
+        }
     }
 
     /**
@@ -217,7 +219,7 @@ public class WireFeedInput {
      *
      */
     public WireFeed build(InputSource is) throws IllegalArgumentException,FeedException {
-    	SAXBuilder saxBuilder = createSAXBuilder();
+    	SAXBuilder saxBuilder = getSAXBuilder();
         try {
             Document document = saxBuilder.build(is);
             return build(document);
@@ -231,6 +233,9 @@ public class WireFeedInput {
         catch (Exception ex) {
             throw new ParsingFeedException("Invalid XML",ex);
         }
+        finally {
+            saxBuilder.reset();
+        }
     }
 
     /**
@@ -277,6 +282,22 @@ public class WireFeedInput {
         return parser.parse(document, _validate);
     }
 
+    /**
+     * Returns the SAXBuilder of the current thread, it is created with createSAXBuilder() on first
+     * use. Subclasses may set up builders differently per instance, they get a new one every time.
+     */
+    private SAXBuilder getSAXBuilder() {
+        if (getClass() != WireFeedInput.class) {
+            return createSAXBuilder();
+        }
+        SAXBuilder saxBuilder = (SAXBuilder) SAX_BUILDERS.get();
+        if (saxBuilder == null) {
+            saxBuilder = createSAXBuilder();
+            SAX_BUILDERS.set(saxBuilder);
+        }
+        return saxBuilder;
+    }
+
     /**
      * Creates and sets up a org.jdom.input.SAXBuilder for parsing.
      * 
@@ -329,6 +350,7 @@ public class WireFeedInput {
 		}
 
 		saxBuilder.setExpandEntities(false);    
+		saxBuilder.setReuseParser(true);
         return saxBuilder;
     }
 }
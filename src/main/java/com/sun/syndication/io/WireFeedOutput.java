@@ -17,6 +17,7 @@
 package com.sun.syndication.io;
 
 import com.sun.syndication.feed.WireFeed;
+import com.sun.syndication.io.impl.ClassLoaderMap;
 import com.sun.syndication.io.impl.FeedGenerators;
 import org.jdom.Document;
 import org.jdom.JDOMException;
@@ -29,8 +30,6 @@ import java.io.Writer;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * Generates an XML document (String, File, OutputStream, Writer, W3C DOM document or JDOM document)
@@ -43,18 +42,15 @@ import java.util.WeakHashMap;
  *
  */
 public class WireFeedOutput {
-    private static Map clMap = new WeakHashMap();
+    private static final ClassLoaderMap clMap = new ClassLoaderMap();
 
     private static FeedGenerators getFeedGenerators() {
-        synchronized(WireFeedOutput.class) {
-            FeedGenerators generators = (FeedGenerators)
-                clMap.get(Thread.currentThread().getContextClassLoader());
-            if (generators == null) {
-                generators = new FeedGenerators();
-                clMap.put(Thread.currentThread().getContextClassLoader(), generators);
-            }
-            return generators;
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        FeedGenerators generators = (FeedGenerators) clMap.get(classLoader);
+        if (generators == null) {
+            generators = (FeedGenerators) clMap.putIfAbsent(classLoader, new FeedGenerators());
         }
+        return generators;
     }
 
     /**
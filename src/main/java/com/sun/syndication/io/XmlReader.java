@@ -20,9 +20,6 @@ import java.io.*;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.HttpURLConnection;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
-import java.text.MessageFormat;
 
 /**
  * Character stream that handles (or at least attemtps to) all the necessary Voodo to figure out
@@ -62,6 +59,8 @@ public class XmlReader extends Reader {
     private Reader _reader;
     private String _encoding;
     private String _defaultEncoding;
+    private long _charsRead;
+    private long _decodeNanos;
 
     /**
      * Sets the default encoding to use if none is set in HTTP content-type,
@@ -390,8 +389,35 @@ public class XmlReader extends Reader {
         return _encoding;
     }
 
+    /**
+     * Returns the number of characters decoded so far.
+     * <p>
+     * @return number of characters read from this reader.
+     *
+     */
+    public long getCharsRead() {
+        return _charsRead;
+    }
+
+    /**
+     * Returns the time spent decoding so far, together with {@link #getCharsRead()} this is
+     * the decode throughput of the detected charset.
+     * <p>
+     * @return nanoseconds spent in read calls of this reader.
+     *
+     */
+    public long getDecodeNanos() {
+        return _decodeNanos;
+    }
+
     public int read(char[] buf,int offset,int len) throws IOException {
-        return _reader.read(buf,offset,len);
+        long start = System.nanoTime();
+        int n = _reader.read(buf,offset,len);
+        _decodeNanos += System.nanoTime() - start;
+        if (n>0) {
+            _charsRead += n;
+        }
+        return n;
     }
 
     /**
@@ -405,7 +431,7 @@ public class XmlReader extends Reader {
     }
 
     private void doRawStream(InputStream is,boolean lenient) throws IOException {
-        BufferedInputStream pis = new BufferedInputStream(is, BUFFER_SIZE);
+        WindowInputStream pis = WindowInputStream.wrap(is);
         String bomEnc = getBOMEncoding(pis);
         String xmlGuessEnc =  getXMLGuessEncoding(pis);
         String xmlEnc = getXmlProlog(pis,xmlGuessEnc);
@@ -414,7 +440,7 @@ public class XmlReader extends Reader {
     }
 
     private void doHttpStream(InputStream is,String httpContentType,boolean lenient) throws IOException {
-        BufferedInputStream pis = new BufferedInputStream(is, BUFFER_SIZE);
+        WindowInputStream pis = WindowInputStream.wrap(is);
         String cTMime = getContentTypeMime(httpContentType);
         String cTEnc  = getContentTypeEncoding(httpContentType);
         String bomEnc = getBOMEncoding(pis);
@@ -447,11 +473,11 @@ public class XmlReader extends Reader {
         else
         if (bomEnc.equals(UTF_8)) {
             if (xmlGuessEnc!=null && !xmlGuessEnc.equals(UTF_8)) {
-                throw new XmlReaderException(RAW_EX_1.format(new Object[]{bomEnc,xmlGuessEnc,xmlEnc}),
+                throw new XmlReaderException(rawMessage(RAW_EX_1,bomEnc,xmlGuessEnc,xmlEnc),
                                              bomEnc,xmlGuessEnc,xmlEnc,is);
             }
             if (xmlEnc!=null && !xmlEnc.equals(UTF_8)) {
-                throw new XmlReaderException(RAW_EX_1.format(new Object[]{bomEnc,xmlGuessEnc,xmlEnc}),
+                throw new XmlReaderException(rawMessage(RAW_EX_1,bomEnc,xmlGuessEnc,xmlEnc),
                                              bomEnc,xmlGuessEnc,xmlEnc,is);
             }
             encoding = UTF_8;
@@ -459,16 +485,16 @@ public class XmlReader extends Reader {
         else
         if (bomEnc.equals(UTF_16BE) || bomEnc.equals(UTF_16LE)) {
             if (xmlGuessEnc!=null && !xmlGuessEnc.equals(bomEnc)) {
-                throw new IOException(RAW_EX_1.format(new Object[]{bomEnc,xmlGuessEnc,xmlEnc}));
+                throw new IOException(rawMessage(RAW_EX_1,bomEnc,xmlGuessEnc,xmlEnc));
             }
             if (xmlEnc!=null && !xmlEnc.equals(UTF_16) && !xmlEnc.equals(bomEnc)) {
-                throw new XmlReaderException(RAW_EX_1.format(new Object[]{bomEnc,xmlGuessEnc,xmlEnc}),
+                throw new XmlReaderException(rawMessage(RAW_EX_1,bomEnc,xmlGuessEnc,xmlEnc),
                                              bomEnc,xmlGuessEnc,xmlEnc,is);
             }
             encoding =bomEnc;
         }
         else {
-            throw new XmlReaderException(RAW_EX_2.format(new Object[]{bomEnc,xmlGuessEnc,xmlEnc}),
+            throw new XmlReaderException(rawMessage(RAW_EX_2,bomEnc,xmlGuessEnc,xmlEnc),
                                          bomEnc,xmlGuessEnc,xmlEnc,is);
         }
         return encoding;
@@ -494,7 +520,7 @@ public class XmlReader extends Reader {
                 }
                 else
                 if (bomEnc!=null && (cTEnc.equals(UTF_16BE) || cTEnc.equals(UTF_16LE))) {
-                    throw new XmlReaderException(HTTP_EX_1.format(new Object[]{cTMime,cTEnc,bomEnc,xmlGuessEnc,xmlEnc}),
+                    throw new XmlReaderException(httpMessage(HTTP_EX_1,cTMime,cTEnc,bomEnc,xmlGuessEnc,xmlEnc),
                                                  cTMime,cTEnc,bomEnc,xmlGuessEnc,xmlEnc,is);
                 }
                 else
@@ -503,7 +529,7 @@ public class XmlReader extends Reader {
                         encoding = bomEnc;
                     }
                     else {
-                        throw new XmlReaderException(HTTP_EX_2.format(new Object[]{cTMime,cTEnc,bomEnc,xmlGuessEnc,xmlEnc}),
+                        throw new XmlReaderException(httpMessage(HTTP_EX_2,cTMime,cTEnc,bomEnc,xmlGuessEnc,xmlEnc),
                                                      cTMime,cTEnc,bomEnc,xmlGuessEnc,xmlEnc,is);
                     }
                 }
@@ -512,7 +538,7 @@ public class XmlReader extends Reader {
                 }
             }
             else {
-                throw new XmlReaderException(HTTP_EX_3.format(new Object[]{cTMime,cTEnc,bomEnc,xmlGuessEnc,xmlEnc}),
+                throw new XmlReaderException(httpMessage(HTTP_EX_3,cTMime,cTEnc,bomEnc,xmlGuessEnc,xmlEnc),
                                              cTMime,cTEnc,bomEnc,xmlGuessEnc,xmlEnc,is);
             }
         }
@@ -529,18 +555,22 @@ public class XmlReader extends Reader {
         return mime;
     }
 
-    private static final Pattern CHARSET_PATTERN = Pattern.compile("charset=([.[^; ]]*)");
-
     // returns charset parameter value, NULL if not present, NULL if httpContentType is NULL
     private static String getContentTypeEncoding(String httpContentType) {
         String encoding = null;
         if (httpContentType!=null) {
             int i = httpContentType.indexOf(";");
             if (i>-1) {
-                String postMime = httpContentType.substring(i+1);
-                Matcher m = CHARSET_PATTERN.matcher(postMime);
-                encoding = (m.find()) ? m.group(1) : null;
-                encoding = (encoding!=null) ? encoding.toUpperCase() : null;
+                int start = httpContentType.indexOf("charset=", i+1);
+                if (start>-1) {
+                    start += "charset=".length();
+                    int end = start;
+                    while (end<httpContentType.length() &&
+                           httpContentType.charAt(end)!=';' && httpContentType.charAt(end)!=' ') {
+                        end++;
+                    }
+                    encoding = httpContentType.substring(start,end).toUpperCase();
+                }
             }
             if (encoding != null &&
                     ((encoding.startsWith("\"") && encoding.endsWith("\"")) ||
@@ -554,109 +584,149 @@ public class XmlReader extends Reader {
 
     // returns the BOM in the stream, NULL if not present,
     // if there was BOM the in the stream it is consumed
-    private static String getBOMEncoding(BufferedInputStream is) throws IOException {
+    private static String getBOMEncoding(WindowInputStream is) throws IOException {
         String encoding = null;
-        int[] bytes = new int[3];
-        is.mark(3);
-        bytes[0] = is.read();
-        bytes[1] = is.read();
-        bytes[2] = is.read();
+        is.fill(3);
+        int b0 = is.peek(0);
+        int b1 = is.peek(1);
+        int b2 = is.peek(2);
 
-        if (bytes[0] == 0xFE && bytes[1] == 0xFF) {
+        if (b0 == 0xFE && b1 == 0xFF) {
             encoding = UTF_16BE;
-            is.reset();
-            is.read();
-            is.read();
+            is.consume(2);
         }
         else
-        if (bytes[0] == 0xFF && bytes[1] == 0xFE) {
+        if (b0 == 0xFF && b1 == 0xFE) {
             encoding = UTF_16LE;
-            is.reset();
-            is.read();
-            is.read();
+            is.consume(2);
         }
         else
-        if (bytes[0] == 0xEF && bytes[1] == 0xBB && bytes[2] == 0xBF) {
+        if (b0 == 0xEF && b1 == 0xBB && b2 == 0xBF) {
             encoding = UTF_8;
-        }
-        else {
-            is.reset();
+            is.consume(3);
         }
         return encoding;
     }
 
     // returns the best guess for the encoding by looking the first bytes of the stream, '<?'
-    private static String getXMLGuessEncoding(BufferedInputStream is) throws IOException {
+    private static String getXMLGuessEncoding(WindowInputStream is) throws IOException {
         String encoding = null;
-        int[] bytes = new int[4];
-        is.mark(4);
-        bytes[0] = is.read();
-        bytes[1] = is.read();
-        bytes[2] = is.read();
-        bytes[3] = is.read();
-        is.reset();
-
-        if (bytes[0] == 0x00 && bytes[1] == 0x3C && bytes[2] == 0x00 && bytes[3] == 0x3F) {
+        is.fill(4);
+        int b0 = is.peek(0);
+        int b1 = is.peek(1);
+        int b2 = is.peek(2);
+        int b3 = is.peek(3);
+
+        if (b0 == 0x00 && b1 == 0x3C && b2 == 0x00 && b3 == 0x3F) {
                 encoding = UTF_16BE;
         }
         else
-        if (bytes[0] == 0x3C && bytes[1] == 0x00 && bytes[2] == 0x3F && bytes[3] == 0x00) {
+        if (b0 == 0x3C && b1 == 0x00 && b2 == 0x3F && b3 == 0x00) {
                 encoding = UTF_16LE;
         }
         else
-        if (bytes[0] == 0x3C && bytes[1] == 0x3F && bytes[2] == 0x78 && bytes[3] == 0x6D) {
+        if (b0 == 0x3C && b1 == 0x3F && b2 == 0x78 && b3 == 0x6D) {
             encoding = UTF_8;
         }
         return encoding;
     }
 
-
-    private static final Pattern ENCODING_PATTERN =
-        Pattern.compile("<\\?xml.*encoding[\\s]*=[\\s]*((?:\".[^\"]*\")|(?:'.[^']*'))", Pattern.MULTILINE);
-
     // returns the encoding declared in the <?xml encoding=...?>,  NULL if none
-    private static String getXmlProlog(BufferedInputStream is,String guessedEnc) throws IOException {
+    private static String getXmlProlog(WindowInputStream is,String guessedEnc) throws IOException {
         String encoding = null;
         if (guessedEnc!=null) {
-            byte[] bytes = new byte[BUFFER_SIZE];
-            is.mark(BUFFER_SIZE);
+            // Look for the first '>' in whole code units of the guessed encoding
+            int unit = guessedEnc.equals(UTF_8) ? 1 : 2;
+            int gtOffset = guessedEnc.equals(UTF_16BE) ? 1 : 0;
             int offset = 0;
-            int max = BUFFER_SIZE;
-            int c = is.read(bytes,offset,max);
-            int firstGT = -1;
-            while (c!=-1 && firstGT==-1 && offset< BUFFER_SIZE) {
-                offset += c;
-                max -= c;
-                c = is.read(bytes,offset,max);
-                firstGT = new String(bytes, 0, offset).indexOf(">");
-            }
-            if (firstGT == -1) {
-                if (c == -1) {
+            int prologLength = -1;
+            while (prologLength==-1) {
+                int available = Math.min(is.fill(0), BUFFER_SIZE);
+                for (; offset + unit <= available; offset += unit) {
+                    if (is.peek(offset + gtOffset) == '>' && (unit == 1 || is.peek(offset + 1 - gtOffset) == 0)) {
+                        prologLength = offset + unit;
+                        break;
+                    }
+                }
+                if (prologLength==-1 && (available >= BUFFER_SIZE || !is.readMore())) {
+                    break;
+                }
+            }
+            if (prologLength == -1) {
+                if (is.isEndOfStream()) {
                     throw new IOException("Unexpected end of XML stream");
                 }
                 else {
                     throw new IOException("XML prolog or ROOT element not found on first " + offset + " bytes");
                 }
             }
-            int bytesRead = offset;
-            if (bytesRead>0) {
-                is.reset();
-                Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes,0,firstGT + 1), guessedEnc);
-                BufferedReader bReader = new BufferedReader(reader);
-                StringBuffer prolog = new StringBuffer();
-                String line = bReader.readLine();
-                while (line != null) {
-                    prolog.append(line);
-                    line = bReader.readLine();
-                }
-                Matcher m = ENCODING_PATTERN.matcher(prolog);
-                if (m.find()) {
-                    encoding = m.group(1).toUpperCase();
-                    encoding = encoding.substring(1,encoding.length()-1);
+            encoding = getPrologEncoding(is.decode(prologLength, guessedEnc));
+        }
+        return encoding;
+    }
+
+    // Same result as matching <\?xml.*encoding[\s]*=[\s]*((?:".[^"]*")|(?:'.[^']*')) on the
+    // prolog with its line breaks removed: the last encoding pseudo-attribute with a quoted value
+    private static String getPrologEncoding(String prolog) {
+        if (prolog.indexOf('\r')>-1 || prolog.indexOf('\n')>-1) {
+            StringBuilder sb = new StringBuilder(prolog.length());
+            for (int i = 0; i < prolog.length(); i++) {
+                char c = prolog.charAt(i);
+                if (c!='\r' && c!='\n') {
+                    sb.append(c);
                 }
             }
+            prolog = sb.toString();
         }
-        return encoding;
+        int xml = prolog.indexOf("<?xml");
+        if (xml==-1) {
+            return null;
+        }
+        int from = prolog.length();
+        while (true) {
+            int i = prolog.lastIndexOf("encoding", from);
+            if (i < xml + "<?xml".length()) {
+                return null;
+            }
+            String value = getQuotedValue(prolog, i + "encoding".length());
+            if (value!=null) {
+                return value.toUpperCase();
+            }
+            from = i - 1;
+        }
+    }
+
+    // returns the quoted value of "[\s]*=[\s]*'...'" at the given index, NULL if there is none
+    private static String getQuotedValue(String s, int i) {
+        int length = s.length();
+        while (i<length && isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        if (i>=length || s.charAt(i)!='=') {
+            return null;
+        }
+        i++;
+        while (i<length && isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        if (i>=length || (s.charAt(i)!='"' && s.charAt(i)!='\'')) {
+            return null;
+        }
+        char quote = s.charAt(i);
+        int start = i + 1;
+        if (start>=length || isLineTerminator(s.charAt(start))) {
+            return null;
+        }
+        int end = s.indexOf(quote, start + 1);
+        return (end==-1) ? null : s.substring(start, end);
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c==' ' || c=='\t' || c=='\n' || c=='\u000B' || c=='\f' || c=='\r';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c=='\n' || c=='\r' || c=='\u0085' || c=='\u2028' || c=='\u2029';
     }
 
     // indicates if the MIME type belongs to the APPLICATION XML family
@@ -676,19 +746,114 @@ public class XmlReader extends Reader {
                 (mime.startsWith("text/") && mime.endsWith("+xml")));
     }
 
-    private static final MessageFormat RAW_EX_1 = new MessageFormat(
-            "Invalid encoding, BOM [{0}] XML guess [{1}] XML prolog [{2}] encoding mismatch");
+    /**
+     * Keeps the head of a stream in one byte window: the charset detection looks at the
+     * window in place, the decoder then reads the window before the rest of the stream.
+     */
+    private static class WindowInputStream extends InputStream {
+        private final InputStream _in;
+        private final byte[] _window = new byte[3 + BUFFER_SIZE]; // Longest BOM and the prolog
+        private int _pos;
+        private int _count;
+        private boolean _eof;
+
+        // a stream handed back by an XmlReaderException is sniffed again in its window
+        static WindowInputStream wrap(InputStream is) {
+            return (is instanceof WindowInputStream) ? (WindowInputStream) is : new WindowInputStream(is);
+        }
+
+        private WindowInputStream(InputStream in) {
+            _in = in;
+        }
+
+        // makes n bytes of the window available if the stream has them, returns the available bytes
+        int fill(int n) throws IOException {
+            while (_count - _pos < n && readMore()) {
+            }
+            return _count - _pos;
+        }
+
+        boolean readMore() throws IOException {
+            if (_eof || _count == _window.length) {
+                return false;
+            }
+            int c = _in.read(_window, _count, _window.length - _count);
+            if (c == -1) {
+                _eof = true;
+                return false;
+            }
+            _count += c;
+            return true;
+        }
+
+        boolean isEndOfStream() {
+            return _eof;
+        }
+
+        int peek(int i) {
+            return (_pos + i < _count) ? _window[_pos + i] & 0xFF : -1;
+        }
+
+        void consume(int n) {
+            _pos += n;
+        }
+
+        String decode(int length, String encoding) throws IOException {
+            return new String(_window, _pos, length, encoding);
+        }
+
+        public int read() throws IOException {
+            return (_pos < _count) ? _window[_pos++] & 0xFF : _in.read();
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (_pos < _count) {
+                int n = Math.min(len, _count - _pos);
+                System.arraycopy(_window, _pos, b, off, n);
+                _pos += n;
+                return n;
+            }
+            return _in.read(b, off, len);
+        }
+
+        public long skip(long n) throws IOException {
+            if (_pos < _count) {
+                int skipped = (int) Math.min(n, _count - _pos);
+                _pos += skipped;
+                return skipped;
+            }
+            return _in.skip(n);
+        }
+
+        public int available() throws IOException {
+            return (_count - _pos) + _in.available();
+        }
+
+        public void close() throws IOException {
+            _in.close();
+        }
+    }
+
+    private static final String RAW_EX_1 = "encoding mismatch";
+
+    private static final String RAW_EX_2 = "unknown BOM";
 
-    private static final MessageFormat RAW_EX_2 = new MessageFormat(
-            "Invalid encoding, BOM [{0}] XML guess [{1}] XML prolog [{2}] unknown BOM");
+    private static final String HTTP_EX_1 = "BOM must be NULL";
 
-    private static final MessageFormat HTTP_EX_1 = new MessageFormat(
-            "Invalid encoding, CT-MIME [{0}] CT-Enc [{1}] BOM [{2}] XML guess [{3}] XML prolog [{4}], BOM must be NULL");
+    private static final String HTTP_EX_2 = "encoding mismatch";
 
-    private static final MessageFormat HTTP_EX_2 = new MessageFormat(
-            "Invalid encoding, CT-MIME [{0}] CT-Enc [{1}] BOM [{2}] XML guess [{3}] XML prolog [{4}], encoding mismatch");
+    private static final String HTTP_EX_3 = "Invalid MIME";
 
-    private static final MessageFormat HTTP_EX_3 = new MessageFormat(
-            "Invalid encoding, CT-MIME [{0}] CT-Enc [{1}] BOM [{2}] XML guess [{3}] XML prolog [{4}], Invalid MIME");
+    // Plain concatenation, a shared MessageFormat is not safe to use from several threads
+    private static String rawMessage(String reason, String bomEnc, String xmlGuessEnc, String xmlEnc) {
+        return "Invalid encoding, BOM [" + bomEnc + "] XML guess [" + xmlGuessEnc +
+               "] XML prolog [" + xmlEnc + "] " + reason;
+    }
+
+    private static String httpMessage(String reason, String cTMime, String cTEnc,
+                                      String bomEnc, String xmlGuessEnc, String xmlEnc) {
+        return "Invalid encoding, CT-MIME [" + cTMime + "] CT-Enc [" + cTEnc + "] BOM [" + bomEnc +
+               "] XML guess [" + xmlGuessEnc + "] XML prolog [" + xmlEnc + "], " + reason;
+    }
 
 }
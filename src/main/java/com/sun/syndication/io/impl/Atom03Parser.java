@@ -50,6 +50,10 @@ public class Atom03Parser extends BaseWireFeedParser {
         return (defaultNS!=null) && defaultNS.equals(getAtomNamespace());
     }
 
+    protected boolean isMyRoot(String namespaceUri, String name, String version) {
+        return getAtomNamespace().getURI().equals(namespaceUri);
+    }
+
     public WireFeed parse(Document document, boolean validate) throws IllegalArgumentException,FeedException {
         if (validate) {
             validateFeed(document);
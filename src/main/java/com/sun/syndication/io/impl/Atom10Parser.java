@@ -80,6 +80,10 @@ public class Atom10Parser extends BaseWireFeedParser {
         Namespace defaultNS = rssRoot.getNamespace();
         return (defaultNS!=null) && defaultNS.equals(getAtomNamespace());
     }
+
+    protected boolean isMyRoot(String namespaceUri, String name, String version) {
+        return getAtomNamespace().getURI().equals(namespaceUri);
+    }
     
     public WireFeed parse(Document document, boolean validate)
     throws IllegalArgumentException,FeedException {
@@ -60,6 +60,23 @@ public abstract class BaseWireFeedParser implements WireFeedParser {
         return _type;
     }
 
+    /**
+     * Tells if a document with the given root element can be of the type of the parser,
+     * {@link FeedParsers} only probes parsers with {@link #isMyType} that accept the root.
+     * <p>
+     * It must hold for every document the parser accepts in isMyType, subclasses changing
+     * isMyType have to change this method accordingly. This implementation accepts any root.
+     * <p>
+     * @param namespaceUri namespace URI of the root element, the empty string if none.
+     * @param name local name of the root element.
+     * @param version value of the root <i>version</i> attribute, <b>null</b> if none.
+     * @return <b>false</b> if isMyType would reject any document with such a root element.
+     *
+     */
+    protected boolean isMyRoot(String namespaceUri, String name, String version) {
+        return true;
+    }
+
     protected List parseFeedModules(Element feedElement) {
         return _feedModuleParsers.parseModules(feedElement);
     }
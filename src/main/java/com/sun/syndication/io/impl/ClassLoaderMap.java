@@ -0,0 +1,84 @@
+package com.sun.syndication.io.impl;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Registry of values per class loader, like the synchronized WeakHashMaps it replaces, but
+ * lookups don't lock.
+ * <p>
+ * The entries are published as an immutable snapshot in a volatile field, adding an entry
+ * copies the snapshot. There are only ever a few class loaders, so lookups scan the snapshot.
+ * Entries of class loaders that have been collected are dropped with the next copy.
+ * <p>
+ */
+public class ClassLoaderMap {
+
+    // Stands in for the null (bootstrap) class loader, a cleared reference also returns null
+    private static final Object NULL_LOADER = new Object();
+
+    private static final class Snapshot {
+        final WeakReference[] loaders;
+        final Object[] values;
+
+        Snapshot(WeakReference[] loaders, Object[] values) {
+            this.loaders = loaders;
+            this.values = values;
+        }
+    }
+
+    private volatile Snapshot _snapshot = new Snapshot(new WeakReference[0], new Object[0]);
+
+    /**
+     * Returns the value registered for a class loader.
+     * <p>
+     * @param classLoader class loader, may be <b>null</b>.
+     * @return the value for the class loader, <b>null</b> if there is none.
+     *
+     */
+    public Object get(ClassLoader classLoader) {
+        Object key = (classLoader == null) ? NULL_LOADER : classLoader;
+        Snapshot snapshot = _snapshot;
+        for (int i = 0; i < snapshot.loaders.length; i++) {
+            if (snapshot.loaders[i].get() == key) {
+                return snapshot.values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registers a value for a class loader unless there is one already.
+     * <p>
+     * @param classLoader class loader, may be <b>null</b>.
+     * @param value value to register.
+     * @return the value registered for the class loader, the given value if there was none.
+     *
+     */
+    public synchronized Object putIfAbsent(ClassLoader classLoader, Object value) {
+        Object existing = get(classLoader);
+        if (existing != null) {
+            return existing;
+        }
+        Snapshot snapshot = _snapshot;
+        int live = 0;
+        for (int i = 0; i < snapshot.loaders.length; i++) {
+            if (snapshot.loaders[i].get() != null) {
+                live++;
+            }
+        }
+        WeakReference[] loaders = new WeakReference[live + 1];
+        Object[] values = new Object[live + 1];
+        int j = 0;
+        for (int i = 0; i < snapshot.loaders.length; i++) {
+            if (snapshot.loaders[i].get() != null) {
+                loaders[j] = snapshot.loaders[i];
+                values[j++] = snapshot.values[i];
+            }
+        }
+        loaders[j] = new WeakReference((classLoader == null) ? NULL_LOADER : classLoader);
+        values[j] = value;
+        _snapshot = new Snapshot(loaders, values);
+        return value;
+    }
+
+}
@@ -20,6 +20,8 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.text.ParsePosition;
 import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.TimeZone;
 import java.util.Locale;
 
@@ -31,6 +33,10 @@ import java.util.Locale;
  * It uses the JDK java.text.SimpleDateFormat class attemtping the parse using a mask for
  * each one of the possible formats.
  * <p/>
+ * The most common RFC822 and W3C date-time shapes are parsed without SimpleDateFormat. The
+ * formatters are cached per thread, and the mask that succeeded last is tried first, so the
+ * dates of a feed document, which usually share a format, are parsed with a single attempt.
+ * <p/>
  *
  * @author Alejandro Abdelnur
  *
@@ -108,6 +114,49 @@ public class DateParser {
     
     
 
+    private static final String[] WEEKDAYS = {"sun", "mon", "tue", "wed", "thu", "fri", "sat"};
+
+    private static final String[] MONTHS = {
+        "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"
+    };
+
+    // Time zone names and their offset in minutes, as SimpleDateFormat parses them with Locale.US,
+    // "UT" is replaced with "GMT" before parsing (which breaks "UTC", so it's not a fast path zone)
+    private static final String[] ZONES = {"GMT", "UT", "EST", "EDT", "CST", "CDT", "MST", "MDT", "PST", "PDT"};
+    private static final int[] ZONE_OFFSETS = {0, 0, -300, -240, -360, -300, -420, -360, -480, -420};
+
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    /**
+     * SimpleDateFormat is not thread-safe, each thread gets its own formatters.
+     */
+    private static class Formatters {
+        Map formats = new IdentityHashMap();
+        // The masks array and index of the mask that succeeded last
+        String[] lastMasks;
+        int lastIndex = -1;
+
+        DateFormat get(String[] masks, int i) {
+            DateFormat[] dfs = (DateFormat[]) formats.get(masks);
+            if (dfs == null) {
+                dfs = new DateFormat[masks.length];
+                formats.put(masks, dfs);
+            }
+            if (dfs[i] == null) {
+                dfs[i] = new SimpleDateFormat(masks[i],Locale.US);
+                //df.setLenient(false);
+                dfs[i].setLenient(true);
+            }
+            return dfs[i];
+        }
+    }
+
+    private static final ThreadLocal FORMATTERS = new ThreadLocal() {
+        protected Object initialValue() {
+            return new Formatters();
+        }
+    };
+
     /**
      * Private constructor to avoid DateParser instances creation.
      */
@@ -128,27 +177,227 @@ public class DateParser {
      */
     private static Date parseUsingMask(String[] masks,String sDate) {
         sDate = (sDate!=null) ? sDate.trim() : null;
-        ParsePosition pp = null;
+        Formatters formatters = (Formatters) FORMATTERS.get();
         Date d = null;
+        int last = formatters.lastMasks==masks ? formatters.lastIndex : -1;
+        if (last>-1) {
+            d = parseUsingMask(formatters,masks,last,sDate);
+        }
         for (int i=0;d==null && i<masks.length;i++) {
-            DateFormat df = new SimpleDateFormat(masks[i],Locale.US);
-            //df.setLenient(false);
-            df.setLenient(true);
-            try {
-                pp = new ParsePosition(0);
-                d = df.parse(sDate,pp);
-                if (pp.getIndex()!=sDate.length()) {
-                    d = null;
+            if (i!=last) {
+                d = parseUsingMask(formatters,masks,i,sDate);
+                if (d!=null) {
+                    formatters.lastMasks = masks;
+                    formatters.lastIndex = i;
                 }
-                //System.out.println("pp["+pp.getIndex()+"] s["+sDate+" m["+masks[i]+"] d["+d+"]");
             }
-            catch (Exception ex1) {
-                //System.out.println("s: "+sDate+" m: "+masks[i]+" d: "+null);
+        }
+        return d;
+    }
+
+    private static Date parseUsingMask(Formatters formatters,String[] masks,int i,String sDate) {
+        DateFormat df = formatters.get(masks,i);
+        // Parsing a zone changes the formatter's zone, a new formatter would use the default
+        df.setTimeZone(TimeZone.getDefault());
+        Date d = null;
+        try {
+            ParsePosition pp = new ParsePosition(0);
+            d = df.parse(sDate,pp);
+            if (pp.getIndex()!=sDate.length()) {
+                d = null;
             }
+            //System.out.println("pp["+pp.getIndex()+"] s["+sDate+" m["+masks[i]+"] d["+d+"]");
+        }
+        catch (Exception ex1) {
+            //System.out.println("s: "+sDate+" m: "+masks[i]+" d: "+null);
         }
         return d;
     }
 
+    /**
+     * Parses "[EEE, ]d MMM yyyy HH:mm[:ss] zone" without SimpleDateFormat. The zone is GMT,
+     * UTC, a US zone or a +hhmm offset.
+     * <p/>
+     * @return the Date, or <b>null</b> if the string doesn't have this shape or values are out of range.
+     */
+    private static Date parseRFC822Fast(String s) {
+        int length = s.length();
+        int pos = 0;
+        if (length>5 && s.charAt(3)==',' && s.charAt(4)==' ') {
+            if (indexOf(WEEKDAYS,s,0)==-1) {
+                return null;
+            }
+            pos = 5;
+        }
+        int start = pos;
+        while (pos<length && pos-start<2 && isDigit(s.charAt(pos))) {
+            pos++;
+        }
+        if (pos==start) {
+            return null;
+        }
+        int day = digits(s,start,pos-start);
+        if (pos+13>length || s.charAt(pos)!=' ' || s.charAt(pos+4)!=' ' || s.charAt(pos+9)!=' ') {
+            return null;
+        }
+        int month = indexOf(MONTHS,s,pos+1);
+        int year = digits(s,pos+5,4);
+        pos += 10;
+        int hour = digits(s,pos,2);
+        int minute = (pos+5<=length && s.charAt(pos+2)==':') ? digits(s,pos+3,2) : -1;
+        pos += 5;
+        int second = 0;
+        if (pos+3<=length && s.charAt(pos)==':') {
+            second = digits(s,pos+1,2);
+            pos += 3;
+        }
+        if (pos+1>=length || s.charAt(pos)!=' ') {
+            return null;
+        }
+        pos++;
+        int offset;
+        char sign = s.charAt(pos);
+        if ((sign=='+' || sign=='-') && pos+5==length) {
+            int hh = digits(s,pos+1,2);
+            int mm = digits(s,pos+3,2);
+            if (hh<0 || mm<0) {
+                return null;
+            }
+            offset = (sign=='-' ? -1 : 1) * (hh*60+mm);
+        }
+        else {
+            int zone = -1;
+            for (int i=0;i<ZONES.length;i++) {
+                if (ZONES[i].length()==length-pos && s.startsWith(ZONES[i],pos)) {
+                    zone = i;
+                }
+            }
+            if (zone==-1) {
+                return null;
+            }
+            offset = ZONE_OFFSETS[zone];
+        }
+        return toDate(year,month+1,day,hour,minute,second,0,offset);
+    }
+
+    /**
+     * Parses "yyyy-MM-dd" and "yyyy-MM-ddTHH:mm[:ss[.SSS]]" with a "Z" or "+hh:mm" zone
+     * without SimpleDateFormat.
+     * <p/>
+     * @return the Date, or <b>null</b> if the string doesn't have this shape or values are out of range.
+     */
+    private static Date parseW3CDateTimeFast(String s) {
+        int length = s.length();
+        if (length<10 || s.charAt(4)!='-' || s.charAt(7)!='-') {
+            return null;
+        }
+        int year = digits(s,0,4);
+        int month = digits(s,5,2);
+        int day = digits(s,8,2);
+        if (length==10) {
+            return toDate(year,month,day,0,0,0,0,0); // Dates without time are GMT
+        }
+        if (length<17 || s.charAt(10)!='T' || s.charAt(13)!=':') {
+            return null;
+        }
+        int hour = digits(s,11,2);
+        int minute = digits(s,14,2);
+        int pos = 16;
+        int second = 0;
+        int millis = 0;
+        if (s.charAt(pos)==':') {
+            if (pos+3>length) {
+                return null;
+            }
+            second = digits(s,pos+1,2);
+            pos += 3;
+            if (pos<length && s.charAt(pos)=='.') {
+                // Like the "SSS" mask, the fraction digits are taken as milliseconds
+                int n = 0;
+                while (pos+1+n<length && isDigit(s.charAt(pos+1+n))) {
+                    n++;
+                }
+                if (n<1 || n>3) {
+                    return null;
+                }
+                millis = digits(s,pos+1,n);
+                pos += 1+n;
+            }
+        }
+        int offset;
+        if (pos+1==length && s.charAt(pos)=='Z') {
+            offset = 0;
+        }
+        else
+        if (pos+6==length && (s.charAt(pos)=='+' || s.charAt(pos)=='-') && s.charAt(pos+3)==':') {
+            int hh = digits(s,pos+1,2);
+            int mm = digits(s,pos+4,2);
+            if (hh<0 || mm<0) {
+                return null;
+            }
+            offset = (s.charAt(pos)=='-' ? -1 : 1) * (hh*60+mm);
+        }
+        else {
+            return null;
+        }
+        return toDate(year,month,day,hour,minute,second,millis,offset);
+    }
+
+    private static Date toDate(int year,int month,int day,int hour,int minute,int second,int millis,int offsetMinutes) {
+        if (year<1970 || month<1 || month>12 || day<1 || hour<0 || hour>23 || minute<0 || minute>59
+            || second<0 || second>59 || millis<0) {
+            return null;
+        }
+        boolean leap = (year%4==0 && year%100!=0) || year%400==0;
+        int daysInMonth = month==12 ? 31 : DAYS_BEFORE_MONTH[month]-DAYS_BEFORE_MONTH[month-1];
+        if (month==2 && leap) {
+            daysInMonth++;
+        }
+        if (day>daysInMonth) {
+            return null;
+        }
+        // Days since 1970-01-01 of the proleptic Gregorian calendar
+        int y = year-1;
+        long days = 365L*(year-1970) + (y/4-1969/4) - (y/100-1969/100) + (y/400-1969/400)
+            + DAYS_BEFORE_MONTH[month-1] + (month>2 && leap ? 1 : 0) + day-1;
+        long time = ((days*24+hour)*60+minute-offsetMinutes)*60+second;
+        return new Date(time*1000+millis);
+    }
+
+    private static int indexOf(String[] names,String s,int pos) {
+        if (pos+3>s.length()) {
+            return -1;
+        }
+        for (int i=0;i<names.length;i++) {
+            if (s.regionMatches(true,pos,names[i],0,3)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c>='0' && c<='9';
+    }
+
+    /**
+     * @return the value of the <code>n</code> digits at <code>pos</code>, -1 if there aren't as many digits.
+     */
+    private static int digits(String s,int pos,int n) {
+        if (pos<0 || pos+n>s.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i=pos;i<pos+n;i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value*10 + (c-'0');
+        }
+        return value;
+    }
+
     /**
      * Parses a Date out of a String with a date in RFC822 format.
      * <p/>
@@ -172,6 +421,10 @@ public class DateParser {
      *
      */
     public static Date parseRFC822(String sDate) {
+        Date d = parseRFC822Fast(sDate);
+        if (d!=null) {
+            return d;
+        }
         int utIndex = sDate.indexOf(" UT");
         if (utIndex>-1) {
             String pre = sDate.substring(0,utIndex);
@@ -202,6 +455,10 @@ public class DateParser {
      *
      */
     public static Date parseW3CDateTime(String sDate) {
+        Date d = parseW3CDateTimeFast(sDate);
+        if (d!=null) {
+            return d;
+        }
         // if sDate has time on it, it injects 'GTM' before de TZ displacement to
         // allow the SimpleDateFormat parser to parse it properly
         int tIndex = sDate.indexOf("T");
@@ -240,7 +497,15 @@ public class DateParser {
      *
      * */
     public static Date parseDate(String sDate) {
-        Date d = parseW3CDateTime(sDate);
+        // Try the fast paths of both formats before any masks
+        Date d = parseW3CDateTimeFast(sDate);
+        if (d==null) {
+            d = parseRFC822Fast(sDate);
+        }
+        if (d!=null) {
+            return d;
+        }
+        d = parseW3CDateTime(sDate);
         if (d==null) {
             d = parseRFC822(sDate);
             if (d==null && ADDITIONAL_MASKS.length>0) {
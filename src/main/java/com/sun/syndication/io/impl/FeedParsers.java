@@ -18,7 +18,13 @@ package com.sun.syndication.io.impl;
 
 import com.sun.syndication.io.WireFeedParser;
 import org.jdom.Document;
+import org.jdom.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Parses an XML document (JDOM Document) into a Feed.
@@ -44,6 +50,11 @@ public class FeedParsers extends PluginManager {
      */
     public static final String FEED_PARSERS_KEY = "WireFeedParser.classes";
 
+    // Root keys are namespace, name and version as found in documents, don't let them grow forever
+    private static final int MAX_INDEXED_ROOTS = 64;
+
+    private final Map _parsersByRoot = new ConcurrentHashMap();
+
     /**
      * Creates a parser instance.
      * <p>
@@ -65,7 +76,8 @@ public class FeedParsers extends PluginManager {
      *
      */
     public WireFeedParser getParserFor(Document document) {
-        List parsers = getPlugins();
+        Element root = document.getRootElement();
+        List parsers = getParsersFor(root.getNamespaceURI(), root.getName(), root.getAttributeValue("version"));
         WireFeedParser parser = null;
         for (int i=0;parser==null && i<parsers.size();i++) {
             parser = (WireFeedParser) parsers.get(i);
@@ -76,6 +88,44 @@ public class FeedParsers extends PluginManager {
         return parser;
     }
 
+    /**
+     * Returns the parsers that may handle a document with the given root element, in the
+     * order they are registered. The parser for a document is the first of these that
+     * accepts it with isMyType.
+     * <p>
+     * The candidates are selected once per root element with
+     * {@link BaseWireFeedParser#isMyRoot}, parsers not extending BaseWireFeedParser are
+     * always candidates.
+     * <p>
+     * @param namespaceUri namespace URI of the root element, the empty string if none.
+     * @param name local name of the root element.
+     * @param version value of the root <i>version</i> attribute, <b>null</b> if none.
+     * @return the candidate parsers, an empty list if no parser can handle such a document.
+     *
+     */
+    public List getParsersFor(String namespaceUri, String name, String version) {
+        // Names can't contain spaces, the length keeps the namespace and version apart
+        String key = name + ' ' + namespaceUri.length() + ' ' + namespaceUri +
+                     ((version==null) ? "-" : "+" + version);
+        List parsers = (List) _parsersByRoot.get(key);
+        if (parsers==null) {
+            parsers = new ArrayList();
+            List plugins = getPlugins();
+            for (int i=0;i<plugins.size();i++) {
+                Object plugin = plugins.get(i);
+                if (!(plugin instanceof BaseWireFeedParser) ||
+                    ((BaseWireFeedParser) plugin).isMyRoot(namespaceUri, name, version)) {
+                    parsers.add(plugin);
+                }
+            }
+            parsers = Collections.unmodifiableList(parsers);
+            if (_parsersByRoot.size()<MAX_INDEXED_ROOTS) {
+                _parsersByRoot.put(key, parsers);
+            }
+        }
+        return parsers;
+    }
+
     protected String getKey(Object obj) {
         return ((WireFeedParser)obj).getType();
     }
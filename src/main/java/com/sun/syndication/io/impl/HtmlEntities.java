@@ -0,0 +1,204 @@
+package com.sun.syndication.io.impl;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Single pass rewriting and decoding of HTML 4 character entities.
+ * <p>
+ * Entity names are looked up in a trie built once from the entity table of
+ * {@link XmlFixerReader}, so no strings are created while scanning the input.
+ * <p>
+ */
+public class HtmlEntities {
+
+    /**
+     * Trie node, the children are kept in small parallel arrays sorted by label.
+     */
+    static final class Node {
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        String codedEntity; // The "&#N;" replacement if this node completes a name
+        int codePoint = -1;
+
+        Node child(char c) {
+            char[] l = labels;
+            for (int i = 0; i < l.length; i++) {
+                if (l[i] == c) {
+                    return children[i];
+                }
+                if (l[i] > c) {
+                    break;
+                }
+            }
+            return null;
+        }
+
+        Node addChild(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            int i = 0;
+            while (i < labels.length && labels[i] < c) {
+                i++;
+            }
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            newLabels[i] = c;
+            newChildren[i] = new Node();
+            System.arraycopy(labels, i, newLabels, i + 1, labels.length - i);
+            System.arraycopy(children, i, newChildren, i + 1, children.length - i);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[i];
+        }
+    }
+
+    static final Node ROOT = new Node();
+
+    static {
+        for (Iterator it = XmlFixerReader.CODED_ENTITIES.entrySet().iterator(); it.hasNext();) {
+            Map.Entry entry = (Map.Entry) it.next();
+            String literal = (String) entry.getKey();   // "&name;"
+            String coded = (String) entry.getValue();   // "&#N;"
+            Node node = ROOT;
+            for (int i = 1; i < literal.length() - 1; i++) {
+                node = node.addChild(literal.charAt(i));
+            }
+            node.codedEntity = coded;
+            node.codePoint = Integer.parseInt(coded.substring(2, coded.length() - 1));
+        }
+    }
+
+    private HtmlEntities() {
+    }
+
+    /**
+     * Replaces literal HTML entities with coded entities, e.g. <code>&amp;nbsp;</code>
+     * with <code>&amp;#160;</code>. Unknown entities are left as they are.
+     * <p>
+     * @param s text with literal entities.
+     * @return the text with coded entities, the same instance if there was nothing to replace.
+     */
+    public static String codeEntities(String s) {
+        int amp = s.indexOf('&');
+        if (amp == -1) {
+            return s;
+        }
+        StringBuilder sb = null;
+        int copied = 0;
+        int i = amp;
+        int length = s.length();
+        while (i < length) {
+            if (s.charAt(i) != '&') {
+                i++;
+                continue;
+            }
+            // Names consist of letters, '^' and '#', like the pattern we always matched with
+            Node node = ROOT;
+            int j = i + 1;
+            while (j < length && isPatternChar(s.charAt(j))) {
+                if (node != null) {
+                    node = node.child(s.charAt(j));
+                }
+                j++;
+            }
+            if (j < length && j > i + 1 && s.charAt(j) == ';') {
+                if (node != null && node.codedEntity != null) {
+                    if (sb == null) {
+                        sb = new StringBuilder(length + 16);
+                    }
+                    sb.append(s, copied, i).append(node.codedEntity);
+                    copied = j + 1;
+                }
+                i = j + 1;
+            }
+            else {
+                i = j;
+            }
+        }
+        if (sb == null) {
+            return s;
+        }
+        return sb.append(s, copied, length).toString();
+    }
+
+    /**
+     * Decodes named HTML 4 entities and decimal or hexadecimal character references
+     * to characters. Anything that is not a complete and known reference is left as it is.
+     * <p>
+     * @param s text with entities.
+     * @return the decoded text, the same instance if there was nothing to decode.
+     */
+    public static String decode(String s) {
+        int amp = s.indexOf('&');
+        if (amp == -1) {
+            return s;
+        }
+        StringBuilder sb = null;
+        int copied = 0;
+        int i = amp;
+        int length = s.length();
+        while (i < length) {
+            if (s.charAt(i) != '&') {
+                i++;
+                continue;
+            }
+            int codePoint = -1;
+            int j = i + 1;
+            if (j < length && s.charAt(j) == '#') {
+                j++;
+                int radix = 10;
+                if (j < length && (s.charAt(j) == 'x' || s.charAt(j) == 'X')) {
+                    radix = 16;
+                    j++;
+                }
+                int start = j;
+                int value = 0;
+                while (j < length && j - start < 8 && Character.digit(s.charAt(j), radix) != -1) {
+                    value = value * radix + Character.digit(s.charAt(j), radix);
+                    j++;
+                }
+                if (j > start && j < length && s.charAt(j) == ';' && Character.isValidCodePoint(value)) {
+                    codePoint = value;
+                }
+            }
+            else {
+                Node node = ROOT;
+                while (j < length && node != null && isNameChar(s.charAt(j))) {
+                    node = node.child(s.charAt(j));
+                    j++;
+                }
+                if (node != null && j < length && s.charAt(j) == ';') {
+                    codePoint = node.codePoint;
+                }
+            }
+            if (codePoint != -1) {
+                if (sb == null) {
+                    sb = new StringBuilder(length);
+                }
+                sb.append(s, copied, i).appendCodePoint(codePoint);
+                copied = j + 1;
+                i = j + 1;
+            }
+            else {
+                i++;
+            }
+        }
+        if (sb == null) {
+            return s;
+        }
+        return sb.append(s, copied, length).toString();
+    }
+
+    private static boolean isPatternChar(char c) {
+        return (c>='a' && c<='z') || (c>='A' && c<='Z') || c=='^' || c=='#';
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c>='a' && c<='z') || (c>='A' && c<='Z') || (c>='0' && c<='9');
+    }
+}
@@ -27,8 +27,7 @@ public class PropertiesLoader {
     private static final String EXTRA_PLUGIN_FILE = "rome.properties";
 
 
-    private static Map clMap =
-        new WeakHashMap();
+    private static final ClassLoaderMap clMap = new ClassLoaderMap();
 
 
     /**
@@ -38,20 +37,18 @@ public class PropertiesLoader {
      *
      */
     public static PropertiesLoader getPropertiesLoader() {
-        synchronized(PropertiesLoader.class) {
-            PropertiesLoader loader = (PropertiesLoader)
-                clMap.get(Thread.currentThread().getContextClassLoader());
-            if (loader == null) {
-                try {
-                    loader = new PropertiesLoader(MASTER_PLUGIN_FILE, EXTRA_PLUGIN_FILE);
-                    clMap.put(Thread.currentThread().getContextClassLoader(), loader);
-                }
-                catch (IOException ex) {
-                    throw new RuntimeException(ex);
-                }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        PropertiesLoader loader = (PropertiesLoader) clMap.get(classLoader);
+        if (loader == null) {
+            try {
+                loader = (PropertiesLoader) clMap.putIfAbsent(
+                    classLoader, new PropertiesLoader(MASTER_PLUGIN_FILE, EXTRA_PLUGIN_FILE));
+            }
+            catch (IOException ex) {
+                throw new RuntimeException(ex);
             }
-            return loader;
         }
+        return loader;
     }
 
     private Properties[] _properties;
@@ -74,6 +74,10 @@ public class RSS090Parser extends BaseWireFeedParser {
         return ok;
     }
 
+    protected boolean isMyRoot(String namespaceUri, String name, String version) {
+        return getRDFNamespace().getURI().equals(namespaceUri);
+    }
+
     public WireFeed parse(Document document, boolean validate) throws IllegalArgumentException,FeedException {
         if (validate) {
             validateFeed(document);
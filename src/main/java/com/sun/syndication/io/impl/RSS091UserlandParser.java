@@ -55,6 +55,10 @@ public class RSS091UserlandParser extends RSS090Parser {
         return ok;
     }
 
+    protected boolean isMyRoot(String namespaceUri, String name, String version) {
+        return name.equals("rss") && getRSSVersion().equals(version);
+    }
+
     protected String getRSSVersion() {
             return "0.91";
     }
@@ -37,6 +37,10 @@ public class RSS20Parser extends RSS094Parser {
             return "2.0";
     }
 
+    protected boolean isMyRoot(String namespaceUri, String name, String version) {
+        return name.equals("rss") && version!=null && version.startsWith(getRSSVersion());
+    }
+
     protected boolean isHourFormat24(Element rssRoot) {
         return false;
     }
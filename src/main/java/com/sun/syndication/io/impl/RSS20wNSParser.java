@@ -55,6 +55,10 @@ public class RSS20wNSParser extends RSS20Parser {
         return ok;
     }
 
+    protected boolean isMyRoot(String namespaceUri, String name, String version) {
+        return getRSSNamespace().getURI().equals(namespaceUri) && super.isMyRoot(namespaceUri, name, version);
+    }
+
     protected Namespace getRSSNamespace() {
         return Namespace.getNamespace(RSS20_URI);
     }
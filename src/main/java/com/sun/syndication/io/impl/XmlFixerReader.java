@@ -20,8 +20,6 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 /**
  * @author Alejandro Abdelnur
@@ -33,15 +31,44 @@ public class XmlFixerReader extends Reader {
     public XmlFixerReader(Reader in) {
         super(in);
         this.in = in;
-        _buffer = new StringBuffer();
+        _buffer = new StringBuilder();
         _state = 0;
     }
 
+    private static final int BLOCK_SIZE = 8192;
+
     private boolean trimmed;
-    private StringBuffer _buffer;
+    private StringBuilder _buffer;
     private int _bufferPos;
     private int _state = 0;
 
+    // Block of chars read from the wrapped reader, scanned in bulk
+    private final char[] _block = new char[BLOCK_SIZE];
+    private int _blockPos;
+    private int _blockLen;
+
+    private final char[] _single = new char[1];
+
+    // Position of the entity in _buffer in the entity trie, null if no entity has this prefix
+    private HtmlEntities.Node _entityNode;
+
+    private boolean fillBlock() throws IOException {
+        int n;
+        do {
+            n = in.read(_block, 0, _block.length);
+        } while (n == 0);
+        _blockPos = 0;
+        _blockLen = n > 0 ? n : 0;
+        return n > 0;
+    }
+
+    private int nextChar() throws IOException {
+        if (_blockPos == _blockLen && !fillBlock()) {
+            return -1;
+        }
+        return _block[_blockPos++];
+    }
+
     private boolean trimStream() throws IOException {
         boolean hasContent = true;
         int state = 0;
@@ -50,7 +77,7 @@ public class XmlFixerReader extends Reader {
         do {
             switch (state) {
                 case 0:
-                    c = in.read();
+                    c = nextChar();
                     if (c==-1) {
                         loop = false;
                         hasContent = false;
@@ -77,7 +104,7 @@ public class XmlFixerReader extends Reader {
                     }
                     break;
                 case 1:
-                    c = in.read();
+                    c = nextChar();
                     if (c==-1) {
                         loop = false;
                         hasContent = true;
@@ -98,7 +125,7 @@ public class XmlFixerReader extends Reader {
                     }
                     break;
                 case 2:
-                    c = in.read();
+                    c = nextChar();
                     if (c==-1) {
                         loop = false;
                         hasContent = true;
@@ -118,7 +145,7 @@ public class XmlFixerReader extends Reader {
                     }
                     break;
                 case 3:
-                    c = in.read();
+                    c = nextChar();
                     if (c==-1) {
                         loop = false;
                         hasContent = true;
@@ -138,7 +165,7 @@ public class XmlFixerReader extends Reader {
                     }
                     break;
                 case 4:
-                    c = in.read();
+                    c = nextChar();
                     if (c==-1) {
                         loop = false;
                         hasContent = true;
@@ -156,7 +183,7 @@ public class XmlFixerReader extends Reader {
                     }
                     break;
                 case 5:
-                    c = in.read();
+                    c = nextChar();
                     if (c==-1) {
                         loop = false;
                         hasContent = true;
@@ -175,7 +202,7 @@ public class XmlFixerReader extends Reader {
                     }
                     break;
                 case 6:
-                    c = in.read();
+                    c = nextChar();
                     if (c==-1) {
                         loop = false;
                         hasContent = true;
@@ -201,105 +228,96 @@ public class XmlFixerReader extends Reader {
     }
 
     public int read() throws IOException {
-        boolean loop;
+        int n = read(_single, 0, 1);
+        return n == -1 ? -1 : _single[0];
+    }
+
+    /**
+     * Copies runs of chars without '&amp;' directly from the block of the wrapped reader,
+     * only literal entities are rewritten through the buffer.
+     */
+    public int read(char[] buffer,int offset,int len) throws IOException {
         if (!trimmed) { // trims XML stream
             trimmed = true;
             if (!trimStream()) {
                 return -1;
             }
         }
-        int c;
-        do { // converts literal entities to coded entities
-            switch (_state) {
-                case 0: // reading chars from stream
-                    c = in.read();
-                    if (c>-1) {
-                        if (c=='&') {
-                            _state = 1;
-                            _buffer.setLength(0);
-                            _bufferPos = 0;
-                            _buffer.append((char)c);
-                            _state = 1;
-                            loop = true;
-                        }
-                        else {
-                            loop = false;
-                        }
-                    }
-                    else {
-                        loop = false;
-                    }
-                    break;
-                case 1: // reading entity from stream
-                    c = in.read();
-                    if (c>-1) {
-                        if (c==';') {
-                            _buffer.append((char)c);
-                            _state = 2;
-                            loop = true;
-                        }
-                        else
-                        if ((c>='a' && c<='z') || (c>='A' && c<='Z') || (c=='#') || (c>='0' && c<='9')) {
-                            _buffer.append((char)c);
-                            loop = true;
-                        }
-                        else {
-                            // no ';' to match the '&' lets just make the '&'
-                            // a legal xml character entity '&amp;'
-                            _buffer.insert(1, "amp;");
-                            _buffer.append((char)c);
-                            _state = 3;
-                            loop = true;
-                        }
-                    }
-                    else {
+        if (len == 0) {
+            return 0;
+        }
+        int charsRead = 0;
+        while (charsRead < len) {
+            if (_state == 3) { // consuming buffer
+                int count = Math.min(len - charsRead, _buffer.length() - _bufferPos);
+                _buffer.getChars(_bufferPos, _bufferPos + count, buffer, offset + charsRead);
+                _bufferPos += count;
+                charsRead += count;
+                if (_bufferPos == _buffer.length()) {
+                    _state = 0;
+                }
+                continue;
+            }
+            if (_blockPos == _blockLen) {
+                // Don't block for more input if we have something to return
+                if ((charsRead > 0 && _state == 0) || !fillBlock()) {
+                    if (_state == 1) {
                         // no ';' to match the '&' lets just make the '&'
                         // a legal xml character entity '&amp;'
                         _buffer.insert(1, "amp;");
                         _state = 3;
-                        loop = true;
+                        continue;
                     }
                     break;
-                case 2: // replacing entity
-                    c = 0;
-                    String literalEntity = _buffer.toString();
-                    String codedEntity = (String) CODED_ENTITIES.get(literalEntity);
+                }
+            }
+            if (_state == 0) { // converts literal entities to coded entities
+                int start = _blockPos;
+                int end = Math.min(_blockLen, start + (len - charsRead));
+                int i = start;
+                while (i < end && _block[i] != '&') {
+                    i++;
+                }
+                System.arraycopy(_block, start, buffer, offset + charsRead, i - start);
+                charsRead += i - start;
+                _blockPos = i;
+                if (i < end) {
+                    _blockPos++;
+                    _buffer.setLength(0);
+                    _bufferPos = 0;
+                    _buffer.append('&');
+                    _entityNode = HtmlEntities.ROOT;
+                    _state = 1;
+                }
+            }
+            else { // reading entity from stream
+                char c = _block[_blockPos++];
+                if (c==';') {
+                    _buffer.append(c);
+                    String codedEntity = _entityNode != null ? _entityNode.codedEntity : null;
                     if (codedEntity!=null) {
                         _buffer.setLength(0);
                         _buffer.append(codedEntity);
                     } // else we leave what was in the stream
                     _state = 3;
-                    loop = true;
-                    break;
-                case 3: // consuming buffer
-                    if (_bufferPos<_buffer.length()) {
-                        c = _buffer.charAt(_bufferPos++);
-                        loop = false;
-                    }
-                    else {
-                        c = 0;
-                        _state = 0;
-                        loop = true;
+                }
+                else
+                if ((c>='a' && c<='z') || (c>='A' && c<='Z') || (c=='#') || (c>='0' && c<='9')) {
+                    _buffer.append(c);
+                    if (_entityNode != null) {
+                        _entityNode = _entityNode.child(c);
                     }
-                    break;
-                 default:
-                    throw new IOException("It shouldn't happen");
+                }
+                else {
+                    // no ';' to match the '&' lets just make the '&'
+                    // a legal xml character entity '&amp;'
+                    _buffer.insert(1, "amp;");
+                    _buffer.append(c);
+                    _state = 3;
+                }
             }
-        } while (loop);
-        return c;
-    }
-
-    public int read(char[] buffer,int offset,int len) throws IOException {
-        int charsRead = 0;
-        int c = read();
-        if (c==-1) {
-            return -1;
-        }
-        buffer[offset+(charsRead++)] = (char) c;
-        while (charsRead<len && (c=read())>-1) {
-            buffer[offset+(charsRead++)] = (char) c;
         }
-        return charsRead;
+        return charsRead == 0 ? -1 : charsRead;
     }
 
     public long skip(long n) throws IOException {
@@ -320,7 +338,7 @@ public class XmlFixerReader extends Reader {
     }
 
     public boolean ready() throws IOException {
-        return (_state!=0) || in.ready();
+        return (_state!=0) || _blockPos < _blockLen || in.ready();
     }
 
     public boolean markSupported() {
@@ -339,7 +357,7 @@ public class XmlFixerReader extends Reader {
         in.close();
     }
 
-    private static Map CODED_ENTITIES = new HashMap();
+    static Map CODED_ENTITIES = new HashMap();
 
     static {
         // note: refer to Character entity references in HTML 4
@@ -610,43 +628,8 @@ public class XmlFixerReader extends Reader {
         CODED_ENTITIES.put("&euro;",      "&#8364;");
     }
 
-    //
-    // It shouldn't be here but well, just reusing the CODED_ENTITIES Map :)
-    //
-
-    private static Pattern ENTITIES_PATTERN = Pattern.compile( "&[A-Za-z^#]+;" );
-
-
     public String processHtmlEntities(String s) {
-        if (s.indexOf('&')==-1) {
-            return s;
-        }
-        StringBuffer sb = new StringBuffer(s.length());
-        int pos = 0;
-        while (pos<s.length()) {
-            String chunck = s.substring(pos);
-            Matcher m = ENTITIES_PATTERN.matcher(chunck);
-            if (m.find()) {
-                int b = pos + m.start();
-                int e = pos + m.end();
-                if (b>pos) {
-                    sb.append(s.substring(pos,b));
-                    pos = b;
-                }
-                chunck = s.substring(pos,e);
-                String codedEntity = (String) CODED_ENTITIES.get(chunck);
-                if (codedEntity==null) {
-                    codedEntity = chunck;
-                }
-                sb.append(codedEntity);
-                pos = e;
-            }
-            else {
-                sb.append(chunck);
-                pos += chunck.length();
-            }
-        }
-        return sb.toString();
+        return HtmlEntities.codeEntities(s);
     }
 
 }
@@ -209,6 +209,7 @@ public class FeedConfigPreferenceActivity extends PreferenceActivity
                preferences.getInt(KEY_TEXT_COLOR, FeedConfig.DEFAULT_TEXT_COLOR),
                FeedConfig.DEFAULT_LAST_REFRESH,
                 FeedConfig.DEFAULT_LAST_REFRESH_ETAG,
+                FeedConfig.DEFAULT_LAST_REFRESH_MODIFIED,
                Integer.valueOf(preferences.getString(KEY_MAX_AGE_DAYS, Integer.toString(FeedConfig.DEFAULT_MAX_AGE_DAYS))),
                preferences.getBoolean(KEY_NOTIFY_NEW, FeedConfig.DEFAULT_NOTIFY_NEW)
             );
@@ -227,6 +228,7 @@ public class FeedConfigPreferenceActivity extends PreferenceActivity
            FeedConfig.DEFAULT_TEXT_COLOR,
            FeedConfig.DEFAULT_LAST_REFRESH,
             FeedConfig.DEFAULT_LAST_REFRESH_ETAG,
+            FeedConfig.DEFAULT_LAST_REFRESH_MODIFIED,
            FeedConfig.DEFAULT_MAX_AGE_DAYS,
            FeedConfig.DEFAULT_NOTIFY_NEW
         );
@@ -44,12 +44,15 @@ import org.fourthline.android.feeds.content.FeedEntry;
 import org.fourthline.android.feeds.model.FeedEntryDetail;
 import org.fourthline.android.feeds.model.FeedReader;
 import org.fourthline.android.feeds.database.PersistentEntity;
+import org.fourthline.android.feeds.util.StringUtil;
 import org.fourthline.android.feeds.util.SystemDateFormat;
 import org.fourthline.android.feeds.widget.BindingCursorAdapter;
 import org.fourthline.android.feeds.widget.PagingCursorAdapterWrapper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 public class FeedEntryListFragment extends ListFragment {
@@ -61,6 +64,9 @@ public class FeedEntryListFragment extends ListFragment {
     protected PagingCursorAdapterWrapper adapter;
     protected ContentObserver refreshContentObserver;
 
+    // There are only a few feed titles, decode each once instead of on every bind
+    protected final Map<String, String> decodedFeedTitles = new HashMap<String, String>();
+
     @Override
     public void onAttach(Activity activity) {
         super.onAttach(activity);
@@ -174,15 +180,24 @@ public class FeedEntryListFragment extends ListFragment {
                    : Uri.withAppendedPath(FeedEntry.CONTENT_URI_FOR_FEEDCONFIG, Long.toString(id));
                 log.fine("Execute query for: " + uri);
 
+                String[] args = params.lastKey == null
+                    ? new String[]{Integer.toString(params.limit)}
+                    : StringUtil.concatAll(new String[]{Integer.toString(params.limit)}, params.lastKey);
+
                 return getActivity().getContentResolver().query(
                    uri,
                    null,
-                   PersistentEntity.RESTRICTION_LIMIT_OFFSET,
-                   new String[]{Integer.toString(params.limit), Long.toString(params.offset)},
+                   PersistentEntity.RESTRICTION_KEYSET,
+                   args,
                    null
                 );
             }
 
+            @Override
+            protected String[] getPageKey(Cursor cursor) {
+                return FeedEntry.getPageKey(cursor);
+            }
+
             @Override
             protected void onPreExecuteQuery(PagingQueryParameters params) {
                 getPendingView().findViewById(R.id.spinner)
@@ -213,7 +228,7 @@ public class FeedEntryListFragment extends ListFragment {
 
     BindingCursorAdapter.Binding[] bindings = new BindingCursorAdapter.Binding[]{
        new BindingCursorAdapter.Binding<TextView>(
-          R.id.feed_entry_title, FeedEntry.TITLE, FeedEntry.ALIAS_PREFIX
+          R.id.feed_entry_title, FeedEntry.TITLE_TEXT, FeedEntry.ALIAS_PREFIX
        ) {
            @Override
            public void setViewValue(View parent, TextView view, Cursor cursor) {
@@ -227,12 +242,6 @@ public class FeedEntryListFragment extends ListFragment {
                    view.setTypeface(null, Typeface.NORMAL);
                }
            }
-
-           @Override
-           public void setViewText(TextView v, String text) {
-               // Decode HTML entities
-               super.setViewText(v, Html.fromHtml(text).toString());
-           }
        },
        new BindingCursorAdapter.Binding<TextView>(
           R.id.feed_title, Feed.TITLE, Feed.ALIAS_PREFIX
@@ -253,7 +262,12 @@ public class FeedEntryListFragment extends ListFragment {
            @Override
            public void setViewText(TextView v, String text) {
                // Decode HTML entities
-               super.setViewText(v, Html.fromHtml(text).toString());
+               String decoded = decodedFeedTitles.get(text);
+               if (decoded == null) {
+                   decoded = Html.fromHtml(text).toString();
+                   decodedFeedTitles.put(text, decoded);
+               }
+               super.setViewText(v, decoded);
            }
        },
        new BindingCursorAdapter.Binding<TextView>(
@@ -267,7 +281,7 @@ public class FeedEntryListFragment extends ListFragment {
            }
        },
        new BindingCursorAdapter.Binding<TextView>(
-          R.id.feed_entry_description, FeedEntry.DESCRIPTION_VALUE, FeedEntry.ALIAS_PREFIX
+          R.id.feed_entry_description, FeedEntry.DESCRIPTION_PREVIEW, FeedEntry.ALIAS_PREFIX
        ) {
            @Override
            public void setViewValue(View parent, TextView view, Cursor cursor, int index) {
@@ -277,11 +291,11 @@ public class FeedEntryListFragment extends ListFragment {
 
                String description;
                if (previewLength == FeedConfig.PreviewLength.LESS) {
-                   description = FeedEntry.getDescriptionAsText(cursor, 50);
+                   description = FeedEntry.getDescriptionPreview(cursor, 50);
                } else if (previewLength == FeedConfig.PreviewLength.REGULAR) {
-                   description = FeedEntry.getDescriptionAsText(cursor, 150);
+                   description = FeedEntry.getDescriptionPreview(cursor, 150);
                } else if (previewLength == FeedConfig.PreviewLength.MORE) {
-                   description = FeedEntry.getDescriptionAsText(cursor, 300);
+                   description = FeedEntry.getDescriptionPreview(cursor, FeedEntry.DESCRIPTION_PREVIEW_LENGTH);
                } else if (previewLength == FeedConfig.PreviewLength.ALL) {
                    description = FeedEntry.getDescriptionAsText(cursor, -1);
                } else {
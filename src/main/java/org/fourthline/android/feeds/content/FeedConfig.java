@@ -73,21 +73,23 @@ public class FeedConfig extends PersistentEntity {
     public static final Column<Integer> TEXT_COLOR = References.column(TABLE, "TEXT_COLOR", DataType.INTEGER);
     public static final Column<Long> LAST_REFRESH = References.column(TABLE, "LAST_REFRESH", DataType.LONG);
     public static final Column<String> LAST_REFRESH_ETAG = References.column(TABLE, "LAST_REFRESH_ETAG");
+    public static final Column<String> LAST_REFRESH_MODIFIED = References.column(TABLE, "LAST_REFRESH_MODIFIED");
     public static final Column<Integer> MAX_AGE_DAYS = References.column(TABLE, "MAX_AGE_DAYS", DataType.INTEGER);
     public static final Column<Boolean> NOTIFY_NEW = References.column(TABLE, "NOTIFY_NEW", DataType.BOOLEAN);
 
     public static final Column[] COLUMNS = new Column[]{
-       _ID, URL, REFRESH_INTERVAL, PREVIEW_LENGTH, ENTRY_PREFIX, TEXT_COLOR, LAST_REFRESH, LAST_REFRESH_ETAG, MAX_AGE_DAYS, NOTIFY_NEW
+       _ID, URL, REFRESH_INTERVAL, PREVIEW_LENGTH, ENTRY_PREFIX, TEXT_COLOR, LAST_REFRESH, LAST_REFRESH_ETAG, LAST_REFRESH_MODIFIED, MAX_AGE_DAYS, NOTIFY_NEW
     };
 
     public static final Projection[] PROJECTION_WITH_FEED = new Projection[]{
-       _ID, URL, REFRESH_INTERVAL, PREVIEW_LENGTH, ENTRY_PREFIX, TEXT_COLOR, LAST_REFRESH, LAST_REFRESH_ETAG, MAX_AGE_DAYS, NOTIFY_NEW, Feed._ID, Feed.TITLE, Feed.DESCRIPTION
+       _ID, URL, REFRESH_INTERVAL, PREVIEW_LENGTH, ENTRY_PREFIX, TEXT_COLOR, LAST_REFRESH, LAST_REFRESH_ETAG, LAST_REFRESH_MODIFIED, MAX_AGE_DAYS, NOTIFY_NEW, Feed._ID, Feed.TITLE, Feed.DESCRIPTION
     };
 
     public static final int DEFAULT_REFRESH_INTERVAL = 1800000; // 30 mins
     public static final PreviewLength DEFAULT_PREVIEW_LENGTH = PreviewLength.REGULAR;
     public static final long DEFAULT_LAST_REFRESH = 0;
     public static final String DEFAULT_LAST_REFRESH_ETAG = "";
+    public static final String DEFAULT_LAST_REFRESH_MODIFIED = "";
     public static final int DEFAULT_MAX_AGE_DAYS = 14;
     public static final boolean DEFAULT_NOTIFY_NEW = true;
     public static final EntryPrefix DEFAULT_ENTRY_PREFIX = FeedConfig.EntryPrefix.NONE;
@@ -95,11 +97,13 @@ public class FeedConfig extends PersistentEntity {
 
     public FeedConfig(Long id, String url, int refreshInterval,
                       Enum<PreviewLength> previewLength, Enum<EntryPrefix> entryPrefix,
-                      int textColor, long lastRefresh, String lastRefreshEtag, int maxAgeDays, boolean notifyNew) {
+                      int textColor, long lastRefresh, String lastRefreshEtag, String lastRefreshModified,
+                      int maxAgeDays, boolean notifyNew) {
         DataType.writeAll(
            INSTANCE.getEntityValues(),
            COLUMNS,
-           id, url, refreshInterval, previewLength, entryPrefix, textColor, lastRefresh, lastRefreshEtag, maxAgeDays, notifyNew
+           id, url, refreshInterval, previewLength, entryPrefix, textColor,
+           lastRefresh, lastRefreshEtag, lastRefreshModified, maxAgeDays, notifyNew
         );
     }
 
@@ -115,10 +119,11 @@ public class FeedConfig extends PersistentEntity {
         DataType.write(INSTANCE.getEntityValues(), NOTIFY_NEW, notifyNew);
     }
 
-    public FeedConfig(Long id, long lastRefresh, String lastRefreshEtag) {
+    public FeedConfig(Long id, long lastRefresh, String lastRefreshEtag, String lastRefreshModified) {
         super(id);
         DataType.write(INSTANCE.getEntityValues(), LAST_REFRESH, lastRefresh);
         DataType.write(INSTANCE.getEntityValues(), LAST_REFRESH_ETAG, lastRefreshEtag);
+        DataType.write(INSTANCE.getEntityValues(), LAST_REFRESH_MODIFIED, lastRefreshModified);
     }
 
     public FeedConfig(Cursor c) {
@@ -131,6 +136,7 @@ public class FeedConfig extends PersistentEntity {
            DataType.read(c, TEXT_COLOR, ALIAS_PREFIX),
            DataType.read(c, LAST_REFRESH, ALIAS_PREFIX),
            DataType.read(c, LAST_REFRESH_ETAG, ALIAS_PREFIX),
+           DataType.read(c, LAST_REFRESH_MODIFIED, ALIAS_PREFIX),
            DataType.read(c, MAX_AGE_DAYS, ALIAS_PREFIX),
            DataType.read(c, NOTIFY_NEW, ALIAS_PREFIX)
         );
@@ -139,11 +145,11 @@ public class FeedConfig extends PersistentEntity {
     public static FeedConfig[] TESTDATA() {
         long now = System.currentTimeMillis();
         return new FeedConfig[]{
-            new FeedConfig(null, "http://blog.fefe.de/rss.xml", 900000, PreviewLength.NONE, EntryPrefix.NONE, DEFAULT_TEXT_COLOR, DEFAULT_LAST_REFRESH, DEFAULT_LAST_REFRESH_ETAG, DEFAULT_MAX_AGE_DAYS, DEFAULT_NOTIFY_NEW),
+            new FeedConfig(null, "http://blog.fefe.de/rss.xml", 900000, PreviewLength.NONE, EntryPrefix.NONE, DEFAULT_TEXT_COLOR, DEFAULT_LAST_REFRESH, DEFAULT_LAST_REFRESH_ETAG, DEFAULT_LAST_REFRESH_MODIFIED, DEFAULT_MAX_AGE_DAYS, DEFAULT_NOTIFY_NEW),
 /*
            new FeedConfig(null, "http://home.cbauer.name/tmp/test/atom", 900000, PreviewLength.REGULAR, EntryPrefix.AUTHOR, Color.LTGRAY, now, DEFAULT_MAX_AGE_DAYS, DEFAULT_NOTIFY_NEW),
-           new FeedConfig(null, "http://rss.cnn.com/rss/edition.rss", 900000, PreviewLength.ALL, EntryPrefix.NONE, DEFAULT_TEXT_COLOR, DEFAULT_LAST_REFRESH, DEFAULT_LAST_REFRESH_ETAG, DEFAULT_MAX_AGE_DAYS, DEFAULT_NOTIFY_NEW),
-           new FeedConfig(null, "http://www.reddit.com/r/roomporn.rss", 900000, PreviewLength.LESS, EntryPrefix.NONE, DEFAULT_TEXT_COLOR, DEFAULT_LAST_REFRESH, DEFAULT_LAST_REFRESH_ETAG, DEFAULT_MAX_AGE_DAYS, DEFAULT_NOTIFY_NEW),
+           new FeedConfig(null, "http://rss.cnn.com/rss/edition.rss", 900000, PreviewLength.ALL, EntryPrefix.NONE, DEFAULT_TEXT_COLOR, DEFAULT_LAST_REFRESH, DEFAULT_LAST_REFRESH_ETAG, DEFAULT_LAST_REFRESH_MODIFIED, DEFAULT_MAX_AGE_DAYS, DEFAULT_NOTIFY_NEW),
+           new FeedConfig(null, "http://www.reddit.com/r/roomporn.rss", 900000, PreviewLength.LESS, EntryPrefix.NONE, DEFAULT_TEXT_COLOR, DEFAULT_LAST_REFRESH, DEFAULT_LAST_REFRESH_ETAG, DEFAULT_LAST_REFRESH_MODIFIED, DEFAULT_MAX_AGE_DAYS, DEFAULT_NOTIFY_NEW),
 */
 /*
            new FeedConfig(null, "http://www.reddit.com/.rss", 900000, PreviewLength.REGULAR, EntryPrefix.NONE, DEFAULT_TEXT_COLOR, DEFAULT_LAST_REFRESH, DEFAULT_MAX_AGE_DAYS, DEFAULT_NOTIFY_NEW),
@@ -18,23 +18,30 @@
 package org.fourthline.android.feeds.content;
 
 import android.content.ContentProvider;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentValues;
-import android.content.Intent;
+import android.content.OperationApplicationException;
 import android.content.UriMatcher;
 import android.database.Cursor;
 import android.net.Uri;
 import android.provider.BaseColumns;
+import com.googlecode.sqb.Aliasable;
 import com.googlecode.sqb.query.Restrictions;
 import com.googlecode.sqb.query.Table;
 import com.googlecode.sqb.query.select.SelectQueryBuilder;
 import com.googlecode.sqb.sql.JoinType;
 import com.googlecode.sqb.sql.Order;
 import com.googlecode.sqb.vendor.sql92.Sql92;
-import org.fourthline.android.feeds.widget.FeedWidgetProvider;
+import org.fourthline.android.feeds.widget.FeedWidgetUpdater;
 import org.fourthline.android.feeds.database.PersistentEntity;
 import org.fourthline.android.feeds.util.StringUtil;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 public class FeedContent extends ContentProvider {
@@ -56,6 +63,8 @@ public class FeedContent extends ContentProvider {
     protected static final int URI_FEEDWIDGET_FEED = 11;
     protected static final int URI_FEEDENTRIES_FOR_FEEDWIDGET = 12;
     protected static final int URI_FEEDCONFIGS_BY_URL = 13;
+    protected static final int URI_FEEDENTRIES_SEARCH = 14;
+    protected static final int URI_FEEDENTRY_KEYS_FOR_FEEDCONFIG = 15;
 
     protected static UriMatcher URI_MATCHER;
 
@@ -74,13 +83,42 @@ public class FeedContent extends ContentProvider {
         FeedContent.URI_MATCHER.addURI(AUTHORITY, FeedWidgetFeed.ENTITY + "/#", URI_FEEDWIDGET_FEED);
         FeedContent.URI_MATCHER.addURI(AUTHORITY, FeedEntry.ENTITY + "/" + FeedWidgetConfig.ENTITY + "/#", URI_FEEDENTRIES_FOR_FEEDWIDGET);
         FeedContent.URI_MATCHER.addURI(AUTHORITY, FeedConfig.ENTITY + "/url/*", URI_FEEDCONFIGS_BY_URL);
+        FeedContent.URI_MATCHER.addURI(AUTHORITY, FeedEntry.ENTITY + "/" + FeedEntry.SEARCH_PATH + "/*", URI_FEEDENTRIES_SEARCH);
+        FeedContent.URI_MATCHER.addURI(AUTHORITY, FeedEntry.ENTITY + "/" + FeedEntry.KEY_PATH + "/" + FeedConfig.ENTITY + "/#", URI_FEEDENTRY_KEYS_FOR_FEEDCONFIG);
     }
 
+    protected static final String SQL_FEED_SELECTION =
+       "select " +
+          "fc._ID as _id," +
+          "case when f.TITLE is null then fc.URL else f.TITLE end as " + FeedWidgetFeed.PROJECTION_FEED_SELECTION[0]+ "," +
+          "case when fwf._ID is null then 0 else 1 end as " + FeedWidgetFeed.PROJECTION_FEED_SELECTION[1] + " " +
+          "from FEEDCONFIG fc " +
+          "left outer join FEED f " +
+          "on fc._ID = f._ID " +
+          "left outer join FEEDWIDGETFEED fwf " +
+          "on fwf.FEED_CONFIG_ID = fc._ID and fwf.FEED_WIDGET_ID = ? " +
+          "order by fc._ID asc";
+
+    protected static final int QUERY_ALL = 0;
+    protected static final int QUERY_LIMIT_OFFSET = 1;
+    protected static final int QUERY_KEYSET_FIRST = 2;
+    protected static final int QUERY_KEYSET_NEXT = 3;
+    protected static final int QUERY_MODES = 4;
+
+    // Serialized SQL by URI match and query mode, racy initialization is fine for immutable strings
+    protected final String[] compiledQueries = new String[(URI_FEEDENTRY_KEYS_FOR_FEEDCONFIG + 1) * QUERY_MODES];
+
     protected FeedsDatabase database;
 
+    protected FeedWidgetUpdater widgetUpdater;
+
+    // Set while a batch runs on the current thread, collects changes for a single notification
+    protected final ThreadLocal<BatchChanges> batchChanges = new ThreadLocal<BatchChanges>();
+
     @Override
     public boolean onCreate() {
         database = FeedsDatabase.getInstance(getContext());
+        widgetUpdater = new FeedWidgetUpdater(getContext());
         return true;
     }
 
@@ -100,6 +138,8 @@ public class FeedContent extends ContentProvider {
             case URI_FEEDENTRIES:
             case URI_FEEDENTRIES_FOR_FEEDCONFIG:
             case URI_FEEDENTRIES_FOR_FEEDWIDGET:
+            case URI_FEEDENTRIES_SEARCH:
+            case URI_FEEDENTRY_KEYS_FOR_FEEDCONFIG:
                 return FeedEntry.MIME_DIR;
             case URI_FEEDENTRY:
             case URI_FEEDENTRY_FOR_LINK:
@@ -118,29 +158,81 @@ public class FeedContent extends ContentProvider {
     public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
         log.fine("Querying URI: " + uri);
 
-        if (URI_MATCHER.match(uri) == URI_FEEDWIDGET_FEED
+        int match = URI_MATCHER.match(uri);
+        if (match == URI_FEEDWIDGET_FEED
            && Arrays.equals(FeedWidgetFeed.PROJECTION_FEED_SELECTION, projection)) {
             log.fine("TODO: Special query we can't do with the SQL builder..."); // TODO
-            String sql =
-               "select " +
-                  "fc._ID as _id," +
-                  "case when f.TITLE is null then fc.URL else f.TITLE end as " + FeedWidgetFeed.PROJECTION_FEED_SELECTION[0]+ "," +
-                  "case when fwf._ID is null then 0 else 1 end as " + FeedWidgetFeed.PROJECTION_FEED_SELECTION[1] + " " +
-                  "from FEEDCONFIG fc " +
-                  "left outer join FEED f " +
-                  "on fc._ID = f._ID " +
-                  "left outer join FEEDWIDGETFEED fwf " +
-                  "on fwf.FEED_CONFIG_ID = fc._ID and fwf.FEED_WIDGET_ID = ? " +
-                  "order by fc._ID asc";
-            selectionArgs = new String[]{uri.getLastPathSegment()};
-            Cursor c = database.get().rawQuery(sql, selectionArgs);
+            Cursor c = database.get().rawQuery(SQL_FEED_SELECTION, new String[]{uri.getLastPathSegment()});
             c.setNotificationUri(getContext().getContentResolver(), uri);
             return c;
         }
+        if (match == UriMatcher.NO_MATCH)
+            throw new IllegalArgumentException("URI not supported by this ContentProvider: " + uri);
+
+        int mode = QUERY_ALL;
+        if (PersistentEntity.RESTRICTION_LIMIT_OFFSET.equals(selection)) {
+            mode = QUERY_LIMIT_OFFSET;
+        } else if (PersistentEntity.RESTRICTION_KEYSET.equals(selection)) {
+            mode = selectionArgs.length > 1 ? QUERY_KEYSET_NEXT : QUERY_KEYSET_FIRST;
+        }
+
+        // The SQL only depends on the URI pattern and paging mode, build it once and let
+        // SQLite's statement cache reuse the compiled program for the same string
+        int shape = match * QUERY_MODES + mode;
+        String sql = compiledQueries[shape];
+        if (sql == null) {
+            sql = createQuery(uri, match, mode);
+            compiledQueries[shape] = sql;
+        }
+
+        String[] args;
+        switch (match) {
+            case URI_FEEDCONFIG:
+            case URI_FEEDCONFIGS_BY_URL:
+            case URI_FEEDENTRY:
+            case URI_FEEDENTRIES_FOR_FEEDCONFIG:
+            case URI_FEEDENTRY_FOR_LINK:
+            case URI_FEEDWIDGET:
+            case URI_FEEDENTRIES_FOR_FEEDWIDGET:
+            case URI_FEEDWIDGET_FEED:
+            case URI_FEEDENTRY_KEYS_FOR_FEEDCONFIG:
+                args = new String[]{uri.getLastPathSegment()};
+                break;
+            case URI_FEEDENTRIES_SEARCH:
+                // Matching all columns, then matching the title for the rank
+                String matchQuery = FeedEntry.toMatchQuery(uri.getLastPathSegment());
+                args = new String[]{matchQuery, matchQuery};
+                break;
+            default:
+                args = new String[0];
+        }
+        switch (mode) {
+            case QUERY_LIMIT_OFFSET:
+                args = StringUtil.concatAll(args, selectionArgs);
+                break;
+            case QUERY_KEYSET_FIRST:
+                args = StringUtil.concatAll(args, selectionArgs[0]);
+                break;
+            case QUERY_KEYSET_NEXT:
+                args = StringUtil.concatAll(
+                    args,
+                    FeedEntry.getPageKeyRestrictionArgs(Arrays.copyOfRange(selectionArgs, 1, selectionArgs.length)),
+                    new String[]{selectionArgs[0]}
+                );
+                break;
+        }
+
+        log.fine("Executing SQL query: " + sql);
+        log.fine("With arguments: " + Arrays.toString(args));
+        Cursor c = database.get().rawQuery(sql, args);
+        c.setNotificationUri(getContext().getContentResolver(), uri);
+        return c;
+    }
 
+    protected String createQuery(Uri uri, int match, int mode) {
         SelectQueryBuilder query = new SelectQueryBuilder();
 
-        switch (URI_MATCHER.match(uri)) {
+        switch (match) {
             case URI_FEEDCONFIGS:
                 query.select(FeedConfig.PROJECTION_WITH_FEED);
                 query.setAliasPrefix(FeedConfig.COLUMNS, FeedConfig.ALIAS_PREFIX);
@@ -172,6 +264,26 @@ public class FeedContent extends ContentProvider {
                 query.orderBy(FeedEntry.POLLED_DATE, Order.DESC);
                 query.orderBy(FeedEntry.PUBLISHED_DATE, Order.DESC);
                 query.orderBy(FeedEntry.UPDATED_DATE, Order.DESC);
+                query.orderBy(FeedEntry._ID, Order.DESC); // Unique order, required for keyset paging
+                break;
+            case URI_FEEDENTRIES_SEARCH:
+                query.select(FeedEntry.PROJECTION_WITH_FEED);
+                query.setAliasPrefix(FeedEntry.COLUMNS, FeedEntry.ALIAS_PREFIX);
+                query.setAliasPrefix(FeedConfig.COLUMNS, FeedConfig.ALIAS_PREFIX);
+                query.setAliasPrefix(Feed.COLUMNS, Feed.ALIAS_PREFIX);
+                query.setAlias(FeedEntry._ID, BaseColumns._ID); // Required for CursorAdapter
+                query.from(Feed.TABLE)
+                   .join(FeedEntry.TABLE, JoinType.INNER, Restrictions.eq(Feed._ID, FeedEntry.FEED_ID))
+                   .join(FeedConfig.TABLE, JoinType.INNER, Restrictions.eq(Feed._ID, FeedConfig._ID))
+                   .join(FeedEntry.SEARCH_TABLE, JoinType.INNER, Restrictions.eq(FeedEntry._ID, FeedEntry.SEARCH_DOCID));
+                // Ordered by rank when serialized, the builder can only order by columns
+                break;
+            case URI_FEEDENTRY_KEYS_FOR_FEEDCONFIG:
+                // No joins and no large columns, this reads all stored entries of a feed
+                query.select(FeedEntry.PROJECTION_KEY);
+                query.setAliasPrefix(FeedEntry.COLUMNS, FeedEntry.ALIAS_PREFIX);
+                query.setAlias(FeedEntry._ID, BaseColumns._ID);
+                query.from(FeedEntry.TABLE);
                 break;
             case URI_FEEDWIDGETS:
             case URI_FEEDWIDGET:
@@ -193,6 +305,7 @@ public class FeedContent extends ContentProvider {
                 query.orderBy(FeedEntry.POLLED_DATE, Order.DESC);
                 query.orderBy(FeedEntry.PUBLISHED_DATE, Order.DESC);
                 query.orderBy(FeedEntry.UPDATED_DATE, Order.DESC);
+                query.orderBy(FeedEntry._ID, Order.DESC); // Unique order, required for keyset paging
                 break;
             case URI_FEEDWIDGET_FEED:
                 query.select(FeedWidgetFeed.COLUMNS);
@@ -205,71 +318,109 @@ public class FeedContent extends ContentProvider {
                 throw new IllegalArgumentException("URI not supported by this ContentProvider: " + uri);
         }
 
-        // TODO OMFG
-        String[] existingArgs = selectionArgs;
-        selectionArgs = new String[0];
-        switch (URI_MATCHER.match(uri)) {
+        switch (match) {
             case URI_FEEDCONFIG:
                 query.where(Restrictions.eq(FeedConfig._ID, "?"));
-                selectionArgs = new String[]{uri.getLastPathSegment()};
                 break;
             case URI_FEEDCONFIGS_BY_URL:
                 query.where(Restrictions.eq(FeedConfig.URL, "?"));
-                selectionArgs = new String[]{uri.getLastPathSegment()};
                 break;
             case URI_FEEDENTRY:
                 query.where(Restrictions.eq(FeedEntry._ID, "?"));
-                selectionArgs = new String[]{uri.getLastPathSegment()};
                 break;
             case URI_FEEDENTRIES_FOR_FEEDCONFIG:
                 query.where(Restrictions.eq(Feed._ID, "?"));
-                selectionArgs = new String[]{uri.getLastPathSegment()};
                 break;
             case URI_FEEDENTRY_FOR_LINK:
                 query.where(Restrictions.eq(FeedEntry.LINK, "?"));
-                selectionArgs = new String[]{uri.getLastPathSegment()};
                 break;
             case URI_FEEDWIDGET:
                 query.where(Restrictions.eq(FeedWidgetConfig._ID, "?"));
-                selectionArgs = new String[]{uri.getLastPathSegment()};
                 break;
             case URI_FEEDENTRIES_FOR_FEEDWIDGET:
                 query.where(Restrictions.eq(FeedWidgetFeed.FEED_WIDGET_ID, "?"));
-                selectionArgs = new String[]{uri.getLastPathSegment()};
                 break;
             case URI_FEEDWIDGET_FEED:
                 query.where(Restrictions.eq(FeedWidgetFeed.FEED_WIDGET_ID, "?"));
-                selectionArgs = new String[]{uri.getLastPathSegment()};
+                break;
+            case URI_FEEDENTRIES_SEARCH:
+                query.where(Restrictions.match(FeedEntry.SEARCH_ALL, "?"));
+                break;
+            case URI_FEEDENTRY_KEYS_FOR_FEEDCONFIG:
+                query.where(Restrictions.eq(FeedEntry.FEED_ID, "?"));
                 break;
         }
 
-        String sql = new Sql92().serialize(query);
-        if (PersistentEntity.RESTRICTION_LIMIT_OFFSET.equals(selection)) {
-            sql = sql + " limit ? offset ?";
-            selectionArgs = StringUtil.concatAll(selectionArgs, existingArgs);
+        switch (mode) {
+            case QUERY_KEYSET_FIRST:
+            case QUERY_KEYSET_NEXT:
+                switch (match) {
+                    case URI_FEEDENTRIES:
+                    case URI_FEEDENTRIES_FOR_FEEDCONFIG:
+                    case URI_FEEDENTRIES_FOR_FEEDWIDGET:
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Keyset paging not supported for URI: " + uri);
+                }
+                // Seek to the row after the last row of the previous page, no rows are skipped
+                if (mode == QUERY_KEYSET_NEXT)
+                    query.where(FeedEntry.createPageKeyRestriction());
+                return new Sql92().serialize(query) + " limit ?";
         }
-        log.fine("Executing SQL query: " + sql);
-        log.fine("With arguments: " + Arrays.toString(selectionArgs));
-        Cursor c = database.get().rawQuery(sql, selectionArgs);
-        c.setNotificationUri(getContext().getContentResolver(), uri);
-        return c;
+
+        String sql = new Sql92().serialize(query);
+        if (match == URI_FEEDENTRIES_SEARCH)
+            sql += createSearchOrderBy(query);
+        return mode == QUERY_LIMIT_OFFSET ? sql + " limit ? offset ?" : sql;
+    }
+
+    protected String createSearchOrderBy(SelectQueryBuilder query) {
+        Map<Aliasable, String> aliases = query.getAliases();
+        String entry = aliases.get(FeedEntry.TABLE) + ".";
+        String search = aliases.get(FeedEntry.SEARCH_TABLE) + ".";
+        // Entries with all words in their title first, then in display order. The title is
+        // matched with a second lookup in the index, FTS has no built-in relevance score.
+        return " order by (" + search + FeedEntry.SEARCH_DOCID + " in (select " + FeedEntry.SEARCH_DOCID
+            + " from " + FeedEntry.SEARCH_TABLE + " where " + FeedEntry.SEARCH_TITLE + " match ?)) desc,"
+            + entry + FeedEntry.POLLED_DATE + " desc,"
+            + entry + FeedEntry.PUBLISHED_DATE + " desc,"
+            + entry + FeedEntry.UPDATED_DATE + " desc,"
+            + entry + FeedEntry._ID + " desc";
     }
 
     @Override
     public Uri insert(Uri uri, ContentValues values) {
         log.fine("Inserting values for URI: " + uri);
         Uri newUri = null;
+        Long changedFeedConfigId = null;
         database.get().beginTransaction();
         try {
             switch (URI_MATCHER.match(uri)) {
                 case URI_FEEDCONFIGS:
                     newUri = insert(FeedConfig.TABLE, FeedConfig.CONTENT_URI, values);
+                    changedFeedConfigId = Long.valueOf(newUri.getLastPathSegment());
                     break;
                 case URI_FEEDS:
                     newUri = insert(Feed.TABLE, Feed.CONTENT_URI, values);
+                    changedFeedConfigId = values.getAsLong(Feed._ID.getName());
                     break;
                 case URI_FEEDENTRIES:
+                    values = new ContentValues(values);
+                    String descriptionText = FeedsDatabase.putTextValues(
+                       values,
+                       values.getAsString(FeedEntry.TITLE.getName()),
+                       values.getAsString(FeedEntry.DESCRIPTION_TYPE.getName()),
+                       values.getAsString(FeedEntry.DESCRIPTION_VALUE.getName())
+                    );
                     newUri = insert(FeedEntry.TABLE, FeedEntry.CONTENT_URI, values);
+                    changedFeedConfigId = values.getAsLong(FeedEntry.FEED_ID.getName());
+                    database.indexFeedEntry(
+                       database.get(),
+                       Long.valueOf(newUri.getLastPathSegment()),
+                       values.getAsString(FeedEntry.TITLE.getName()),
+                       values.getAsString(FeedEntry.AUTHOR.getName()),
+                       descriptionText
+                    );
                     break;
                 default:
                     throw new IllegalArgumentException("URI not supported by this ContentProvider: " + uri);
@@ -281,15 +432,11 @@ public class FeedContent extends ContentProvider {
                     break;
             }
             database.get().setTransactionSuccessful();
-            getContext().getContentResolver().notifyChange(uri, null);
         } finally {
             database.get().endTransaction();
         }
 
-        log.fine("Sending FeedWidget UPDATE_ALL broadcast");
-        Intent update = new Intent();
-        update.setAction(FeedWidgetProvider.ACTION_FEEDWIDGET_UPDATE_ALL);
-        getContext().sendBroadcast(update);
+        notifyChange(uri, changedFeedConfigId);
 
         return newUri;
     }
@@ -303,6 +450,7 @@ public class FeedContent extends ContentProvider {
     public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
         log.fine("Updating values for URI: " + uri);
         int count;
+        Long changedFeedConfigId = null;
         database.get().beginTransaction();
         try {
             switch (URI_MATCHER.match(uri)) {
@@ -313,6 +461,7 @@ public class FeedContent extends ContentProvider {
                        FeedConfig._ID + "=?",
                        new String[]{uri.getLastPathSegment()}
                     );
+                    changedFeedConfigId = Long.valueOf(uri.getLastPathSegment());
                     break;
                 case URI_FEED:
                     count = database.get().update(
@@ -321,6 +470,7 @@ public class FeedContent extends ContentProvider {
                        Feed._ID + "=?",
                        new String[]{uri.getLastPathSegment()}
                     );
+                    changedFeedConfigId = Long.valueOf(uri.getLastPathSegment());
                     break;
                 case URI_FEEDENTRIES:
                     if (FeedEntry.FEED_ID.getName().equals(selection)) {
@@ -331,22 +481,59 @@ public class FeedContent extends ContentProvider {
                            FeedEntry.FEED_ID + "=?",
                            selectionArgs
                         );
+                        if (FeedsDatabase.isSearchIndexChange(values))
+                            database.reindexFeedEntries(database.get(), FeedEntry.FEED_ID + "=?", selectionArgs);
+                        changedFeedConfigId = Long.valueOf(selectionArgs[0]);
                     } else {
                         // Update all feed entries
                         count = database.get().update(
                            FeedEntry.TABLE.getName(),
                            values, null, null
                         );
+                        if (FeedsDatabase.isSearchIndexChange(values))
+                            database.reindexFeedEntries(database.get(), null, null);
                     }
                     break;
                 case URI_FEEDENTRY:
                     // Update a single feed entry
-                    count = database.get().update(
-                       FeedEntry.TABLE.getName(),
-                       values,
-                       FeedEntry._ID + "=?",
-                       new String[]{uri.getLastPathSegment()}
-                    );
+                    changedFeedConfigId = values.containsKey(FeedEntry.FEED_ID.getName())
+                       ? values.getAsLong(FeedEntry.FEED_ID.getName())
+                       : queryFeedId(uri.getLastPathSegment());
+                    if (FeedsDatabase.isSearchIndexComplete(values)) {
+                        // Derive the text columns before the update, one write and no query
+                        values = new ContentValues(values);
+                        String descriptionText = FeedsDatabase.putTextValues(
+                           values,
+                           values.getAsString(FeedEntry.TITLE.getName()),
+                           values.getAsString(FeedEntry.DESCRIPTION_TYPE.getName()),
+                           values.getAsString(FeedEntry.DESCRIPTION_VALUE.getName())
+                        );
+                        count = database.get().update(
+                           FeedEntry.TABLE.getName(),
+                           values,
+                           FeedEntry._ID + "=?",
+                           new String[]{uri.getLastPathSegment()}
+                        );
+                        if (count > 0)
+                            database.indexFeedEntry(
+                               database.get(),
+                               Long.valueOf(uri.getLastPathSegment()),
+                               values.getAsString(FeedEntry.TITLE.getName()),
+                               values.getAsString(FeedEntry.AUTHOR.getName()),
+                               descriptionText
+                            );
+                    } else {
+                        count = database.get().update(
+                           FeedEntry.TABLE.getName(),
+                           values,
+                           FeedEntry._ID + "=?",
+                           new String[]{uri.getLastPathSegment()}
+                        );
+                        if (FeedsDatabase.isSearchIndexChange(values))
+                            database.reindexFeedEntries(
+                               database.get(), FeedEntry._ID + "=?", new String[]{uri.getLastPathSegment()}
+                            );
+                    }
                     break;
                 case URI_FEEDWIDGET:
                     count = database.get().update(
@@ -361,15 +548,11 @@ public class FeedContent extends ContentProvider {
             }
 
             database.get().setTransactionSuccessful();
-            getContext().getContentResolver().notifyChange(uri, null);
         } finally {
             database.get().endTransaction();
         }
 
-        log.fine("Sending FeedWidget UPDATE_ALL broadcast");
-        Intent update = new Intent();
-        update.setAction(FeedWidgetProvider.ACTION_FEEDWIDGET_UPDATE_ALL);
-        getContext().sendBroadcast(update);
+        notifyChange(uri, changedFeedConfigId);
 
         return count;
     }
@@ -378,6 +561,7 @@ public class FeedContent extends ContentProvider {
     public int delete(Uri uri, String selection, String[] selectionArgs) {
         log.fine("Deleting values for URI: " + uri);
         int count;
+        Long changedFeedConfigId = null;
         database.get().beginTransaction();
         try {
 
@@ -388,8 +572,11 @@ public class FeedContent extends ContentProvider {
                        FeedConfig._ID + "=?",
                        new String[]{uri.getLastPathSegment()}
                     );
+                    // Not scoped by config id, the widget feed rows that map this config to its
+                    // widgets are deleted by the cascade, so all widgets have to be updated
                     break;
                 case URI_FEEDENTRY:
+                    changedFeedConfigId = queryFeedId(uri.getLastPathSegment());
                     count = database.get().delete(
                        FeedEntry.TABLE.getName(),
                        FeedEntry._ID + "=?",
@@ -415,17 +602,112 @@ public class FeedContent extends ContentProvider {
             }
 
             database.get().setTransactionSuccessful();
-            getContext().getContentResolver().notifyChange(uri, null);
         } finally {
             database.get().endTransaction();
         }
 
-        log.fine("Sending FeedWidget UPDATE_ALL broadcast");
-        Intent update = new Intent();
-        update.setAction(FeedWidgetProvider.ACTION_FEEDWIDGET_UPDATE_ALL);
-        getContext().sendBroadcast(update);
+        notifyChange(uri, changedFeedConfigId);
 
         return count;
     }
 
+    @Override
+    public int bulkInsert(Uri uri, ContentValues[] values) {
+        log.fine("Bulk inserting " + values.length + " rows for URI: " + uri);
+        BatchChanges changes = new BatchChanges();
+        batchChanges.set(changes);
+        database.get().beginTransaction();
+        try {
+            for (ContentValues v : values) {
+                insert(uri, v);
+            }
+            database.get().setTransactionSuccessful();
+        } finally {
+            database.get().endTransaction();
+            batchChanges.remove();
+        }
+        notifyChanges(changes);
+        return values.length;
+    }
+
+    @Override
+    public ContentProviderResult[] applyBatch(ArrayList<ContentProviderOperation> operations)
+        throws OperationApplicationException {
+        log.fine("Applying batch of operations: " + operations.size());
+        ContentProviderResult[] results;
+        BatchChanges changes = new BatchChanges();
+        batchChanges.set(changes);
+        database.get().beginTransaction();
+        try {
+            results = super.applyBatch(operations);
+            database.get().setTransactionSuccessful();
+        } finally {
+            database.get().endTransaction();
+            batchChanges.remove();
+        }
+        notifyChanges(changes);
+        return results;
+    }
+
+    protected Long queryFeedId(String feedEntryId) {
+        Cursor c = null;
+        try {
+            c = database.get().rawQuery(
+               "select " + FeedEntry.FEED_ID + " from " + FeedEntry.TABLE + " where " + FeedEntry._ID + "=?",
+               new String[]{feedEntryId}
+            );
+            return c.moveToFirst() ? c.getLong(0) : null;
+        } finally {
+            if (c != null) c.close();
+        }
+    }
+
+    /**
+     * @param changedFeedConfigId The feed config of the changed data, or <code>null</code> if it
+     *                            could be any or all feed configs.
+     */
+    protected void notifyChange(Uri uri, Long changedFeedConfigId) {
+        BatchChanges changes = batchChanges.get();
+        if (changes != null) {
+            // Notify once when the batch is complete, observers of an entity get all its changes
+            changes.uris.add(getEntityUri(uri));
+            if (changedFeedConfigId != null) {
+                changes.feedConfigIds.add(changedFeedConfigId);
+            } else {
+                changes.allFeedConfigs = true;
+            }
+            return;
+        }
+        getContext().getContentResolver().notifyChange(uri, null);
+        if (changedFeedConfigId != null) {
+            widgetUpdater.feedConfigChanged(changedFeedConfigId);
+        } else {
+            widgetUpdater.allChanged();
+        }
+    }
+
+    protected void notifyChanges(BatchChanges changes) {
+        for (Uri uri : changes.uris) {
+            getContext().getContentResolver().notifyChange(uri, null);
+        }
+        if (changes.allFeedConfigs) {
+            widgetUpdater.allChanged();
+        } else if (!changes.feedConfigIds.isEmpty()) {
+            widgetUpdater.feedConfigsChanged(changes.feedConfigIds);
+        }
+    }
+
+    protected Uri getEntityUri(Uri uri) {
+        return new Uri.Builder().scheme(uri.getScheme())
+           .authority(uri.getAuthority())
+           .appendPath(uri.getPathSegments().get(0))
+           .build();
+    }
+
+    protected static class BatchChanges {
+        final Set<Uri> uris = new HashSet<Uri>();
+        final Set<Long> feedConfigIds = new HashSet<Long>();
+        boolean allFeedConfigs = false;
+    }
+
 }
\ No newline at end of file
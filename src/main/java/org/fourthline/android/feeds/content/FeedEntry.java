@@ -23,8 +23,11 @@ import android.net.Uri;
 import com.googlecode.sqb.query.Column;
 import com.googlecode.sqb.query.DataType;
 import com.googlecode.sqb.query.ForeignKey;
+import com.googlecode.sqb.query.Index;
 import com.googlecode.sqb.query.Projection;
 import com.googlecode.sqb.query.References;
+import com.googlecode.sqb.query.Restriction;
+import com.googlecode.sqb.query.Restrictions;
 import com.googlecode.sqb.query.Table;
 import org.fourthline.android.feeds.Constants;
 import org.fourthline.android.feeds.database.PersistentEntity;
@@ -56,16 +59,49 @@ public class FeedEntry extends PersistentEntity {
     public static final Column<String> DESCRIPTION_TYPE = References.column(TABLE, "DESCRIPTION_TYPE");
     public static final Column<String> DESCRIPTION_VALUE = References.column(TABLE, "DESCRIPTION_VALUE");
     public static final Column<Boolean> IS_READ = References.column(TABLE, "IS_READ", DataType.BOOLEAN);
+    // Derived when the entry is stored, see FeedsDatabase.putTextValues()
+    public static final Column<String> TITLE_TEXT = References.column(TABLE, "TITLE_TEXT");
+    public static final Column<String> DESCRIPTION_PREVIEW = References.column(TABLE, "DESCRIPTION_PREVIEW");
+    // Changes when title, author or description change, see getContentHash()
+    public static final Column<Long> CONTENT_HASH = References.column(TABLE, "CONTENT_HASH", DataType.LONG);
 
     public static final Column[] COLUMNS = new Column[]{
-       _ID, FEED_ID, LINK, TITLE, AUTHOR, POLLED_DATE, PUBLISHED_DATE, UPDATED_DATE, DESCRIPTION_TYPE, DESCRIPTION_VALUE, IS_READ
+       _ID, FEED_ID, LINK, TITLE, AUTHOR, POLLED_DATE, PUBLISHED_DATE, UPDATED_DATE, DESCRIPTION_TYPE, DESCRIPTION_VALUE, IS_READ,
+       TITLE_TEXT, DESCRIPTION_PREVIEW, CONTENT_HASH
+    };
+
+    public static final Index[] INDEXES = new Index[]{
+       // Entries of a feed config in display order
+       new Index("IDX_FEEDENTRY_FEED_DATES", TABLE, FEED_ID, POLLED_DATE, PUBLISHED_DATE, UPDATED_DATE),
+       // Entries of all feed configs in display order
+       new Index("IDX_FEEDENTRY_DATES", TABLE, POLLED_DATE, PUBLISHED_DATE, UPDATED_DATE),
+       new Index("IDX_FEEDENTRY_LINK", TABLE, LINK)
+    };
+
+    // Full-text index of entries, the docid of a row is the _ID of its entry
+    public static final Table SEARCH_TABLE = References.table(getTableName(FeedEntry.class) + "_SEARCH");
+    public static final Column<Long> SEARCH_DOCID = References.column(SEARCH_TABLE, "docid", DataType.LONG);
+    public static final Column<String> SEARCH_TITLE = References.column(SEARCH_TABLE, "TITLE");
+    public static final Column<String> SEARCH_AUTHOR = References.column(SEARCH_TABLE, "AUTHOR");
+    public static final Column<String> SEARCH_TEXT = References.column(SEARCH_TABLE, "DESCRIPTION_TEXT");
+    // The hidden column named like the table, matching it searches all columns
+    public static final Column<String> SEARCH_ALL = References.column(SEARCH_TABLE, SEARCH_TABLE.getName());
+
+    public static final Column[] SEARCH_COLUMNS = new Column[]{
+       SEARCH_TITLE, SEARCH_AUTHOR, SEARCH_TEXT
     };
 
     public static final Projection[] PROJECTION_WITH_FEED = new Projection[]{
        _ID, FEED_ID, LINK, TITLE, AUTHOR, POLLED_DATE, PUBLISHED_DATE, UPDATED_DATE, DESCRIPTION_TYPE, DESCRIPTION_VALUE, IS_READ,
+       TITLE_TEXT, DESCRIPTION_PREVIEW,
        FeedConfig._ID, FeedConfig.URL, FeedConfig.PREVIEW_LENGTH, FeedConfig.TEXT_COLOR, FeedConfig.ENTRY_PREFIX, Feed.TITLE
     };
 
+    // The values that identify and order stored entries, for reconciliation with a refreshed feed
+    public static final Projection[] PROJECTION_KEY = new Projection[]{
+       _ID, LINK, POLLED_DATE, PUBLISHED_DATE, CONTENT_HASH
+    };
+
     /* TODO: No aggregation/grouping in query builder
     public static final String COUNT_FEEDENTRY_ALIAS = ALIAS_PREFIX + "count";
     public static final Projection COUNT_FEEDENTRY = new StringProjection("count("+ALIAS_PREFIX+_ID+")", COUNT_FEEDENTRY_ALIAS);
@@ -78,6 +114,28 @@ public class FeedEntry extends PersistentEntity {
           .appendPath(FeedConfig.ENTITY)
           .build();
 
+    public static final String KEY_PATH = "key";
+
+    public static final Uri CONTENT_URI_KEY_FOR_FEEDCONFIG =
+       new Uri.Builder().scheme(Constants.SCHEME_CONTENT)
+          .authority(FeedContent.AUTHORITY)
+          .appendPath(ENTITY)
+          .appendPath(KEY_PATH)
+          .appendPath(FeedConfig.ENTITY)
+          .build();
+
+    public static final String SEARCH_PATH = "search";
+
+    /**
+     * Append the search text as a path segment, see {@link #toMatchQuery(String)}.
+     */
+    public static final Uri CONTENT_URI_SEARCH =
+       new Uri.Builder().scheme(Constants.SCHEME_CONTENT)
+          .authority(FeedContent.AUTHORITY)
+          .appendPath(ENTITY)
+          .appendPath(SEARCH_PATH)
+          .build();
+
     public static final Uri CONTENT_URI_FOR_FEEDWIDGET =
        new Uri.Builder().scheme(Constants.SCHEME_CONTENT)
           .authority(FeedContent.AUTHORITY)
@@ -92,6 +150,10 @@ public class FeedEntry extends PersistentEntity {
     public static final String DEFAULT_DESCRIPTION_TYPE = "text/plain";
     public static final String DEFAULT_DESCRIPTION_VALUE = "NO DESCRIPTION";
 
+    // The longest description preview in the entry list, the stored preview has one more character
+    // so truncating it on a word boundary gives the same result as truncating the whole text
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 300;
+
     public FeedEntry(Long id, long feedId, String link, String title, String author,
                      long polledDate, long publishedDate, long updatedDate,
                      String descriptionType, String descriptionValue, boolean isRead) {
@@ -107,6 +169,7 @@ public class FeedEntry extends PersistentEntity {
         DataType.write(values, DESCRIPTION_TYPE, descriptionType);
         DataType.write(values, DESCRIPTION_VALUE, descriptionValue);
         DataType.write(values, IS_READ, isRead);
+        DataType.write(values, CONTENT_HASH, getContentHash(title, author, descriptionType, descriptionValue));
     }
 
     public FeedEntry(long id, boolean isRead) {
@@ -115,6 +178,28 @@ public class FeedEntry extends PersistentEntity {
         DataType.write(values, IS_READ, isRead);
     }
 
+    public FeedEntry(long id, String link, long polledDate, long publishedDate, long contentHash) {
+        super(id);
+        ContentValues values = INSTANCE.getEntityValues();
+        DataType.write(values, LINK, link);
+        DataType.write(values, POLLED_DATE, polledDate);
+        DataType.write(values, PUBLISHED_DATE, publishedDate);
+        DataType.write(values, CONTENT_HASH, contentHash);
+    }
+
+    /**
+     * Reads only the values of {@link #PROJECTION_KEY}.
+     */
+    public static FeedEntry readKey(Cursor c) {
+        return new FeedEntry(
+            DataType.read(c, _ID),
+            DataType.read(c, LINK, ALIAS_PREFIX),
+            DataType.read(c, POLLED_DATE, ALIAS_PREFIX),
+            DataType.read(c, PUBLISHED_DATE, ALIAS_PREFIX),
+            DataType.read(c, CONTENT_HASH, ALIAS_PREFIX)
+        );
+    }
+
     public FeedEntry(Cursor c) {
         this(
             DataType.read(c, _ID),
@@ -131,13 +216,57 @@ public class FeedEntry extends PersistentEntity {
         );
     }
 
+    /**
+     * @return The values of the display order key of the current row, see {@link PersistentEntity#RESTRICTION_KEYSET}.
+     */
+    public static String[] getPageKey(Cursor cursor) {
+        return new String[]{
+            Long.toString(DataType.read(cursor, POLLED_DATE, ALIAS_PREFIX)),
+            Long.toString(DataType.read(cursor, PUBLISHED_DATE, ALIAS_PREFIX)),
+            Long.toString(DataType.read(cursor, UPDATED_DATE, ALIAS_PREFIX)),
+            Long.toString(DataType.read(cursor, _ID))
+        };
+    }
+
+    public static Restriction createPageKeyRestriction() {
+        // Row value comparison (a,b,c,d) < (?,?,?,?) isn't supported by older SQLite versions
+        return Restrictions.or(
+            Restrictions.lt(POLLED_DATE, "?"),
+            Restrictions.and(
+                Restrictions.eq(POLLED_DATE, "?"),
+                Restrictions.or(
+                    Restrictions.lt(PUBLISHED_DATE, "?"),
+                    Restrictions.and(
+                        Restrictions.eq(PUBLISHED_DATE, "?"),
+                        Restrictions.or(
+                            Restrictions.lt(UPDATED_DATE, "?"),
+                            Restrictions.and(
+                                Restrictions.eq(UPDATED_DATE, "?"),
+                                Restrictions.lt(_ID, "?")
+                            )
+                        )
+                    )
+                )
+            )
+        );
+    }
+
+    public static String[] getPageKeyRestrictionArgs(String[] pageKey) {
+        return new String[]{
+            pageKey[0], pageKey[0], pageKey[1], pageKey[1], pageKey[2], pageKey[2], pageKey[3]
+        };
+    }
+
     public static String getDescriptionAsText(Cursor cursor) {
         return getDescriptionAsText(cursor, -1);
     }
 
     public static String getDescriptionAsText(Cursor cursor, int length) {
-        String description = getDescription(cursor);
-        if (isDescriptionHTML(cursor)) {
+        return getDescriptionAsText(getDescription(cursor), isDescriptionHTML(cursor), length);
+    }
+
+    public static String getDescriptionAsText(String description, boolean isHTML, int length) {
+        if (isHTML) {
             description = StringUtil.removeHtml(description);
         }
         description = StringUtil.replaceControlChars(description);
@@ -179,6 +308,91 @@ public class FeedEntry extends PersistentEntity {
         return getDescriptionType(cursor).equals("text/html");
     }
 
+    /**
+     * A 64 bit FNV-1a hash of the content, entries with the same link are only written again
+     * when it changes. Dates are not included, many feeds don't have them or change them
+     * without changing the content.
+     */
+    public static long getContentHash(String title, String author, String descriptionType, String descriptionValue) {
+        long hash = 0xcbf29ce484222325L;
+        hash = hashContent(hash, title);
+        hash = hashContent(hash, author);
+        hash = hashContent(hash, descriptionType);
+        hash = hashContent(hash, descriptionValue);
+        return hash;
+    }
+
+    protected static long hashContent(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        // Separates the values, a noncharacter that doesn't occur in text
+        return (hash ^ 0xffff) * 0x100000001b3L;
+    }
+
+    /**
+     * @return The title with HTML entities decoded, as shown in the entry list.
+     */
+    public static String getTitleText(String title) {
+        return StringUtil.removeHtml(title);
+    }
+
+    /**
+     * @return The plain text of the description, empty if there is no description.
+     */
+    public static String getDescriptionText(String descriptionType, String descriptionValue) {
+        if (descriptionValue == null || descriptionValue.equals(DEFAULT_DESCRIPTION_VALUE))
+            return "";
+        return getDescriptionAsText(descriptionValue, "text/html".equals(descriptionType), -1);
+    }
+
+    /**
+     * @param descriptionText The result of {@link #getDescriptionText(String, String)}.
+     * @return The start of the text {@link #getDescriptionAsText(android.database.Cursor, int)} returns,
+     *         enough to truncate it to {@link #DESCRIPTION_PREVIEW_LENGTH} or less.
+     */
+    public static String getDescriptionPreview(String title, String descriptionValue, String descriptionText) {
+        String text = descriptionValue == null || descriptionValue.equals(DEFAULT_DESCRIPTION_VALUE)
+            ? getDescriptionAsText(title, false, -1)
+            : descriptionText;
+        return text.length() > DESCRIPTION_PREVIEW_LENGTH + 1
+            ? text.substring(0, DESCRIPTION_PREVIEW_LENGTH + 1)
+            : text;
+    }
+
+    /**
+     * @param length The preview length, at most {@link #DESCRIPTION_PREVIEW_LENGTH}.
+     */
+    public static String getDescriptionPreview(Cursor cursor, int length) {
+        String preview = DataType.read(cursor, DESCRIPTION_PREVIEW, ALIAS_PREFIX);
+        return StringUtil.truncateOnWordBoundary(preview, length, "...");
+    }
+
+    /**
+     * Turns the text a user searches for into a full-text query, entries have to contain
+     * words starting with all the words of the text. Anything but letters and digits is
+     * ignored, so there is no query syntax to get wrong.
+     */
+    public static String toMatchQuery(String text) {
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i)))
+                i++;
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i)))
+                i++;
+            if (i > start) {
+                if (sb.length() > 0)
+                    sb.append(' ');
+                sb.append(text, start, i).append('*');
+            }
+        }
+        return sb.toString();
+    }
+
     public boolean isExpired(int maxAgeDays) {
         long polledDate = getValue(POLLED_DATE);
         long expiredDate = polledDate + (maxAgeDays * 86400000);
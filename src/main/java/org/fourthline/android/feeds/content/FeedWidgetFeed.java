@@ -21,6 +21,7 @@ import android.net.Uri;
 import com.googlecode.sqb.query.Column;
 import com.googlecode.sqb.query.DataType;
 import com.googlecode.sqb.query.ForeignKey;
+import com.googlecode.sqb.query.Index;
 import com.googlecode.sqb.query.References;
 import com.googlecode.sqb.query.Table;
 import org.fourthline.android.feeds.Constants;
@@ -50,6 +51,13 @@ public class FeedWidgetFeed extends PersistentEntity {
        _ID, FEED_WIDGET_ID, FEED_CONFIG_ID
     };
 
+    public static final Index[] INDEXES = new Index[]{
+       // Covers the join of a widget's feed configs, no table access necessary
+       new Index("IDX_FEEDWIDGETFEED_WIDGET_CONFIG", TABLE, FEED_WIDGET_ID, FEED_CONFIG_ID),
+       // Lookup of widgets showing a feed config, and foreign key cascades
+       new Index("IDX_FEEDWIDGETFEED_CONFIG", TABLE, FEED_CONFIG_ID)
+    };
+
     public static final String[] PROJECTION_FEED_SELECTION = new String[]{"FEED_LABEL", "IS_SELECTED"};
 
     public FeedWidgetFeed(Long id, long feedWidgetId, long feedId) {
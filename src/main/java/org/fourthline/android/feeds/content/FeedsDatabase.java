@@ -17,9 +17,12 @@
 
 package org.fourthline.android.feeds.content;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import com.googlecode.sqb.query.Index;
 import org.fourthline.android.feeds.database.DDL;
 
 import java.util.logging.Logger;
@@ -40,14 +43,17 @@ public class FeedsDatabase extends SQLiteOpenHelper {
     }
 
     public static final String DATABASE_NAME = "feeds";
-    public static final int DATABASE_VERSION = 2;
+    public static final int DATABASE_VERSION = 7;
 
     private FeedsDatabase(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
     }
 
     public SQLiteDatabase get() {
-        // Readable, writable, it's all the same connection with serial access
+        // Readable, writable, it's all the same database. In WAL mode its connection pool
+        // runs queries outside of a transaction on read-only connections, so they see the
+        // last committed state instead of waiting for a writer (e.g. a refresh batch).
+        // Queries within a transaction use the writing connection and see its changes.
         return getWritableDatabase();
     }
 
@@ -55,6 +61,13 @@ public class FeedsDatabase extends SQLiteOpenHelper {
     public void onOpen(SQLiteDatabase database) {
         super.onOpen(database);
 
+        // Before any pragmas, they only apply to the connection they run on
+        if (!database.isReadOnly()) {
+            log.fine("Enabling write-ahead logging");
+            if (!database.enableWriteAheadLogging())
+                log.warning("Write-ahead logging not available, queries will wait for writers");
+        }
+
         if (TESTMODE)
             insertTestData(database);
 
@@ -66,6 +79,7 @@ public class FeedsDatabase extends SQLiteOpenHelper {
     public void onCreate(SQLiteDatabase database) {
 
         log.fine("On create database, executing DDL");
+        database.execSQL("drop table if exists " + FeedEntry.SEARCH_TABLE);
         database.execSQL("drop table if exists " + FeedWidgetFeed.TABLE);
         database.execSQL("drop table if exists " + FeedWidgetConfig.TABLE);
         database.execSQL("drop table if exists " + FeedEntry.TABLE);
@@ -91,6 +105,150 @@ public class FeedsDatabase extends SQLiteOpenHelper {
         ddl = DDL.createTable(FeedWidgetFeed.TABLE, FeedWidgetFeed.COLUMNS);
         log.fine("DDL: " + ddl);
         database.execSQL(ddl);
+
+        createIndexes(database);
+        createSearchIndex(database);
+    }
+
+    protected void createIndexes(SQLiteDatabase database) {
+        for (Index index : FeedEntry.INDEXES) {
+            String ddl = DDL.createIndex(index);
+            log.fine("DDL: " + ddl);
+            database.execSQL(ddl);
+        }
+        for (Index index : FeedWidgetFeed.INDEXES) {
+            String ddl = DDL.createIndex(index);
+            log.fine("DDL: " + ddl);
+            database.execSQL(ddl);
+        }
+    }
+
+    protected void createSearchIndex(SQLiteDatabase database) {
+        String ddl = DDL.createFullTextTable(FeedEntry.SEARCH_TABLE, FeedEntry.SEARCH_COLUMNS);
+        log.fine("DDL: " + ddl);
+        database.execSQL(ddl);
+
+        // Entries are also deleted by cascade when their feed is deleted, the provider doesn't see that
+        ddl = "create trigger " + FeedEntry.SEARCH_TABLE + "_DELETE after delete on " + FeedEntry.TABLE
+            + " begin delete from " + FeedEntry.SEARCH_TABLE
+            + " where " + FeedEntry.SEARCH_DOCID + "=old." + FeedEntry._ID + "; end";
+        log.fine("DDL: " + ddl);
+        database.execSQL(ddl);
+    }
+
+    /**
+     * @return <code>true</code> if updating these feed entry values changes the derived text columns
+     *         and the search index.
+     */
+    public static boolean isSearchIndexChange(ContentValues values) {
+        return values.containsKey(FeedEntry.TITLE.getName())
+            || values.containsKey(FeedEntry.AUTHOR.getName())
+            || values.containsKey(FeedEntry.DESCRIPTION_TYPE.getName())
+            || values.containsKey(FeedEntry.DESCRIPTION_VALUE.getName());
+    }
+
+    /**
+     * @return <code>true</code> if these feed entry values carry everything needed to derive the
+     *         text columns and the search index, without reading the stored entry.
+     */
+    public static boolean isSearchIndexComplete(ContentValues values) {
+        return values.containsKey(FeedEntry.TITLE.getName())
+            && values.containsKey(FeedEntry.AUTHOR.getName())
+            && values.containsKey(FeedEntry.DESCRIPTION_TYPE.getName())
+            && values.containsKey(FeedEntry.DESCRIPTION_VALUE.getName());
+    }
+
+    /**
+     * Puts the text columns derived from title and description of a feed entry into the values, so
+     * the entry list doesn't have to strip HTML when it shows the entry.
+     *
+     * @return The plain text of the description, for the search index.
+     */
+    public static String putTextValues(ContentValues values, String title,
+                                       String descriptionType, String descriptionValue) {
+        String descriptionText = FeedEntry.getDescriptionText(descriptionType, descriptionValue);
+        values.put(FeedEntry.TITLE_TEXT.getName(), FeedEntry.getTitleText(title));
+        values.put(
+            FeedEntry.DESCRIPTION_PREVIEW.getName(),
+            FeedEntry.getDescriptionPreview(title, descriptionValue, descriptionText)
+        );
+        return descriptionText;
+    }
+
+    public void indexFeedEntry(SQLiteDatabase database, long id, String title, String author,
+                               String descriptionText) {
+        database.delete(
+            FeedEntry.SEARCH_TABLE.getName(),
+            FeedEntry.SEARCH_DOCID + "=?",
+            new String[]{Long.toString(id)}
+        );
+        ContentValues values = new ContentValues();
+        values.put(FeedEntry.SEARCH_DOCID.getName(), id);
+        values.put(FeedEntry.SEARCH_TITLE.getName(), title);
+        values.put(FeedEntry.SEARCH_AUTHOR.getName(), author);
+        values.put(FeedEntry.SEARCH_TEXT.getName(), descriptionText);
+        database.insert(FeedEntry.SEARCH_TABLE.getName(), null, values);
+    }
+
+    /**
+     * Derives the text columns and indexes the feed entries matching the selection again, all
+     * entries if the selection is <code>null</code>.
+     */
+    public void reindexFeedEntries(SQLiteDatabase database, String selection, String[] selectionArgs) {
+        Cursor c = database.query(
+            FeedEntry.TABLE.getName(),
+            new String[]{
+                FeedEntry._ID.getName(), FeedEntry.TITLE.getName(), FeedEntry.AUTHOR.getName(),
+                FeedEntry.DESCRIPTION_TYPE.getName(), FeedEntry.DESCRIPTION_VALUE.getName()
+            },
+            selection, selectionArgs, null, null, null
+        );
+        try {
+            ContentValues values = new ContentValues();
+            while (c.moveToNext()) {
+                String descriptionText = putTextValues(values, c.getString(1), c.getString(3), c.getString(4));
+                database.update(
+                    FeedEntry.TABLE.getName(),
+                    values,
+                    FeedEntry._ID + "=?",
+                    new String[]{Long.toString(c.getLong(0))}
+                );
+                indexFeedEntry(database, c.getLong(0), c.getString(1), c.getString(2), descriptionText);
+            }
+        } finally {
+            c.close();
+        }
+    }
+
+    /**
+     * Stores the content hash of all feed entries, see {@link FeedEntry#getContentHash(String, String, String, String)}.
+     */
+    public void updateContentHashes(SQLiteDatabase database) {
+        Cursor c = database.query(
+            FeedEntry.TABLE.getName(),
+            new String[]{
+                FeedEntry._ID.getName(), FeedEntry.TITLE.getName(), FeedEntry.AUTHOR.getName(),
+                FeedEntry.DESCRIPTION_TYPE.getName(), FeedEntry.DESCRIPTION_VALUE.getName()
+            },
+            null, null, null, null, null
+        );
+        try {
+            ContentValues values = new ContentValues();
+            while (c.moveToNext()) {
+                values.put(
+                    FeedEntry.CONTENT_HASH.getName(),
+                    FeedEntry.getContentHash(c.getString(1), c.getString(2), c.getString(3), c.getString(4))
+                );
+                database.update(
+                    FeedEntry.TABLE.getName(),
+                    values,
+                    FeedEntry._ID + "=?",
+                    new String[]{Long.toString(c.getLong(0))}
+                );
+            }
+        } finally {
+            c.close();
+        }
     }
 
     @Override
@@ -101,12 +259,43 @@ public class FeedsDatabase extends SQLiteOpenHelper {
 
     @Override
     public void onUpgrade(SQLiteDatabase database, int oldVersion, int newVersion) {
-        if (oldVersion == 1 && newVersion == 2) {
+        if (oldVersion < 2) {
             database.execSQL(
                 "alter table " + FeedConfig.TABLE.getName()
                     + " add column " + FeedConfig.LAST_REFRESH_ETAG.getName() + " string not null default ''"
             );
         }
+        if (oldVersion < 3) {
+            database.execSQL(
+                "alter table " + FeedConfig.TABLE.getName()
+                    + " add column " + FeedConfig.LAST_REFRESH_MODIFIED.getName() + " string not null default ''"
+            );
+        }
+        if (oldVersion < 4) {
+            createIndexes(database);
+        }
+        if (oldVersion < 5) {
+            createSearchIndex(database);
+        }
+        if (oldVersion < 6) {
+            database.execSQL(
+                "alter table " + FeedEntry.TABLE.getName()
+                    + " add column " + FeedEntry.TITLE_TEXT.getName() + " string not null default ''"
+            );
+            database.execSQL(
+                "alter table " + FeedEntry.TABLE.getName()
+                    + " add column " + FeedEntry.DESCRIPTION_PREVIEW.getName() + " string not null default ''"
+            );
+            // Fills the derived text columns and the search index of existing entries
+            reindexFeedEntries(database, null, null);
+        }
+        if (oldVersion < 7) {
+            database.execSQL(
+                "alter table " + FeedEntry.TABLE.getName()
+                    + " add column " + FeedEntry.CONTENT_HASH.getName() + " integer not null default 0"
+            );
+            updateContentHashes(database);
+        }
     }
 
     protected void insertTestData(SQLiteDatabase db) {
@@ -20,6 +20,7 @@ package org.fourthline.android.feeds.database;
 import android.provider.BaseColumns;
 import com.googlecode.sqb.query.Column;
 import com.googlecode.sqb.query.ForeignKey;
+import com.googlecode.sqb.query.Index;
 import com.googlecode.sqb.query.Table;
 
 public class DDL {
@@ -65,4 +66,31 @@ public class DDL {
         sb.append(")");
         return sb.toString();
     }
-}
+
+    public static String createFullTextTable(Table table, Column[] columns) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("create virtual table ").append(table.getName()).append(" using fts4(");
+        for (Column column : columns) {
+            sb.append(column.getName()).append(",");
+        }
+        if (columns.length > 0)
+            sb.deleteCharAt(sb.length()-1);
+        sb.append(")");
+        return sb.toString();
+    }
+
+    public static String createIndex(Index index) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("create").append(SPACE);
+        if (index.isUnique())
+            sb.append("unique").append(SPACE);
+        sb.append("index if not exists ").append(index.getName());
+        sb.append(" on ").append(index.getTable().getName()).append("(");
+        for (Column column : index.getColumns()) {
+            sb.append(column.getName()).append(",");
+        }
+        sb.deleteCharAt(sb.length()-1);
+        sb.append(")");
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -33,6 +33,8 @@ public abstract class PersistentEntity {
     public static final String MIME_ITEM_PREFIX = "vnd.android.cursor.item";
 
     public static final String RESTRICTION_LIMIT_OFFSET = "limit_offset";
+    // Arguments are the limit, optionally followed by the key values of the last row of the previous page
+    public static final String RESTRICTION_KEYSET = "keyset";
 
     final public Entity INSTANCE;
 
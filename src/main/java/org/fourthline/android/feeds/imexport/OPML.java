@@ -146,6 +146,7 @@ final public class OPML {
                 textColor,
                 FeedConfig.DEFAULT_LAST_REFRESH,
                 FeedConfig.DEFAULT_LAST_REFRESH_ETAG,
+                FeedConfig.DEFAULT_LAST_REFRESH_MODIFIED,
                 maxAgeDays,
                 notifyNew
             );
@@ -21,7 +21,9 @@ import android.app.IntentService;
 import android.app.Notification;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
+import android.content.ContentProviderOperation;
 import android.content.ContentResolver;
+import android.content.ContentValues;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
@@ -37,19 +39,36 @@ import com.sun.syndication.feed.synd.SyndFeed;
 import com.sun.syndication.io.FeedException;
 import com.sun.syndication.io.SyndFeedInput;
 import com.sun.syndication.io.XmlReader;
+import com.sun.syndication.io.impl.XmlFixerReader;
 import org.fourthline.android.feeds.FeedEntryListActivity;
 import org.fourthline.android.feeds.R;
 import org.fourthline.android.feeds.content.Feed;
 import org.fourthline.android.feeds.content.FeedConfig;
+import org.fourthline.android.feeds.content.FeedContent;
 import org.fourthline.android.feeds.content.FeedEntry;
 import org.seamless.util.Exceptions;
+import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.net.*;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -63,6 +82,15 @@ public class FeedRefreshService extends IntentService {
     public static final int NOTIFICATION_WORK_IN_PROGRESS = 1;
     public static final int NOTIFICATION_NEW_ENTRIES = 2;
 
+    public static final int DEFAULT_REFRESH_THREADS = 4;
+    public static final int MAX_CONNECTIONS_PER_HOST = 2;
+
+    // Feed types we can't stream are parsed again from the start, the root element must be within this range
+    public static final int STREAMING_DETECT_LIMIT = 64 * 1024;
+
+    // Stop parsing a feed after this many consecutive entries we already have
+    public static final int INCREMENTAL_KNOWN_ENTRIES = 3;
+
     // This is used to serialize feed refresh
     protected static final AtomicBoolean IN_PROGRESS = new AtomicBoolean(false);
 
@@ -75,9 +103,20 @@ public class FeedRefreshService extends IntentService {
         String url;
         long lastRefresh;
         String lastRefreshEtag;
+        String lastRefreshModified;
         int maxAgeDays;
         boolean notifyNew;
         RefreshAction action;
+        Map<String, Long> knownEntries; // Content hash by link, null if the whole feed must be parsed
+    }
+
+    public class FeedFetch {
+        FeedRefresh refresh;
+        String etag;
+        String lastModified;
+        Feed feed; // Null if the feed data was not stale or couldn't be fetched
+        List<FeedEntry> entries;
+        boolean truncated; // Parsing stopped at known entries, the rest of the feed is unknown
     }
 
     public class FeedEntryRefresh {
@@ -183,6 +222,7 @@ public class FeedRefreshService extends IntentService {
                     feedRefresh.id = feedConfigId;
                     feedRefresh.lastRefresh = DataType.read(cursor, FeedConfig.LAST_REFRESH, FeedConfig.ALIAS_PREFIX);
                     feedRefresh.lastRefreshEtag = DataType.read(cursor, FeedConfig.LAST_REFRESH_ETAG, FeedConfig.ALIAS_PREFIX);
+                    feedRefresh.lastRefreshModified = DataType.read(cursor, FeedConfig.LAST_REFRESH_MODIFIED, FeedConfig.ALIAS_PREFIX);
                     feedRefresh.maxAgeDays = DataType.read(cursor, FeedConfig.MAX_AGE_DAYS, FeedConfig.ALIAS_PREFIX);
                     feedRefresh.url = DataType.read(cursor, FeedConfig.URL, FeedConfig.ALIAS_PREFIX);
                     feedRefresh.notifyNew = DataType.read(cursor, FeedConfig.NOTIFY_NEW, FeedConfig.ALIAS_PREFIX);
@@ -200,6 +240,11 @@ public class FeedRefreshService extends IntentService {
                 cursor.close();
         }
 
+        for (FeedRefresh feedRefresh : feedRefreshList) {
+            if (feedRefresh.action.equals(RefreshAction.UPDATE))
+                feedRefresh.knownEntries = getKnownEntries(feedRefresh);
+        }
+
         if (feedRefreshList.isEmpty()) {
             log.fine("No feed configs require refresh now");
         } else {
@@ -214,15 +259,56 @@ public class FeedRefreshService extends IntentService {
 
             // All entries discovered now share the same creation time, nicer sorting later
             // when we mix entries from different feeds in the same list
-            long currentTime = System.currentTimeMillis();
-
+            final long currentTime = System.currentTimeMillis();
+
+            // Fetching and parsing runs concurrently, this thread is the single writer of the results
+            int threads = Math.min(getRefreshThreads(preferences), feedRefreshList.size());
+            log.fine("Fetching " + feedRefreshList.size() + " feeds with worker threads: " + threads);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CompletionService<FeedFetch> completionService = new ExecutorCompletionService<FeedFetch>(executor);
+
+            // Connections per host are limited by only submitting the next feed of a host when one
+            // of its fetches completes, so a worker never waits for a host while other feeds are queued
+            Map<String, LinkedList<FeedRefresh>> pendingByHost = new LinkedHashMap<String, LinkedList<FeedRefresh>>();
+            for (FeedRefresh refresh : feedRefreshList) {
+                String host = getHostKey(refresh.url);
+                LinkedList<FeedRefresh> pending = pendingByHost.get(host);
+                if (pending == null) {
+                    pending = new LinkedList<FeedRefresh>();
+                    pendingByHost.put(host, pending);
+                }
+                pending.add(refresh);
+            }
+            Map<Future<FeedFetch>, String> fetchHosts = new HashMap<Future<FeedFetch>, String>();
             try {
-                for (FeedRefresh refresh : feedRefreshList) {
-                    boolean feedHasNewEntries = refreshFeed(refresh, currentTime);
-                    if (!haveNewEntries && feedHasNewEntries && refresh.notifyNew)
+                for (Map.Entry<String, LinkedList<FeedRefresh>> pending : pendingByHost.entrySet()) {
+                    for (int i = 0; i < MAX_CONNECTIONS_PER_HOST && !pending.getValue().isEmpty(); i++) {
+                        submitFetch(completionService, fetchHosts, pending.getKey(), pending.getValue().removeFirst(), currentTime);
+                    }
+                }
+                for (int i = 0; i < feedRefreshList.size(); i++) {
+                    Future<FeedFetch> completed = completionService.take();
+                    String host = fetchHosts.remove(completed);
+                    LinkedList<FeedRefresh> pending = pendingByHost.get(host);
+                    if (!pending.isEmpty())
+                        submitFetch(completionService, fetchHosts, host, pending.removeFirst(), currentTime);
+
+                    FeedFetch fetch;
+                    try {
+                        fetch = completed.get();
+                    } catch (ExecutionException ex) {
+                        log.log(Level.WARNING, "Error fetching feed: " + ex, Exceptions.unwrap(ex));
+                        continue;
+                    }
+                    boolean feedHasNewEntries = storeFeed(fetch);
+                    if (!haveNewEntries && feedHasNewEntries && fetch.refresh.notifyNew)
                         haveNewEntries = true;
                 }
+            } catch (InterruptedException ex) {
+                log.warning("Interrupted while waiting for feed fetch results, aborting refresh");
+                Thread.currentThread().interrupt();
             } finally {
+                executor.shutdownNow();
                 stopNotifyWorkInProgress();
             }
 
@@ -232,72 +318,88 @@ public class FeedRefreshService extends IntentService {
         }
     }
 
-    protected boolean refreshFeed(FeedRefresh feedRefresh, long currentTime) {
+    protected void submitFetch(CompletionService<FeedFetch> completionService,
+                               Map<Future<FeedFetch>, String> fetchHosts,
+                               String host, final FeedRefresh refresh, final long currentTime) {
+        Future<FeedFetch> future = completionService.submit(new Callable<FeedFetch>() {
+            @Override
+            public FeedFetch call() throws Exception {
+                return fetchFeed(refresh, currentTime);
+            }
+        });
+        fetchHosts.put(future, host);
+    }
 
-        boolean haveNewEntries = false;
-        String etag = FeedConfig.DEFAULT_LAST_REFRESH_ETAG;
+    protected String getHostKey(String url) {
+        try {
+            String host = new URL(url).getHost();
+            return host != null ? host.toLowerCase() : "";
+        } catch (MalformedURLException ex) {
+            return ""; // Fails again when fetched, and is logged there
+        }
+    }
+
+    protected int getRefreshThreads(SharedPreferences preferences) {
+        String threads = preferences.getString(
+            getString(R.string.key_feedreader_refresh_threads), Integer.toString(DEFAULT_REFRESH_THREADS)
+        );
+        try {
+            return Math.max(1, Integer.parseInt(threads));
+        } catch (NumberFormatException ex) {
+            return DEFAULT_REFRESH_THREADS;
+        }
+    }
+
+    /**
+     * Called concurrently by the worker threads, must not access the database. At most
+     * {@link #MAX_CONNECTIONS_PER_HOST} fetches of the same host are submitted at a time.
+     */
+    protected FeedFetch fetchFeed(final FeedRefresh feedRefresh, final long currentTime) {
+
+        FeedFetch fetch = new FeedFetch();
+        fetch.refresh = feedRefresh;
+        fetch.etag = FeedConfig.DEFAULT_LAST_REFRESH_ETAG;
+        fetch.lastModified = FeedConfig.DEFAULT_LAST_REFRESH_MODIFIED;
 
         try {
-            if (!isFeedDataStale(feedRefresh.url, feedRefresh.lastRefresh, feedRefresh.lastRefreshEtag)) {
-                log.fine("Feed data is not stale, skipping refresh: " + feedRefresh.url);
-                return haveNewEntries;
-            }
-            log.fine("Feed data is stale, fetching with GET: " + feedRefresh.url);
             URL feedSource = new URL(feedRefresh.url);
+
+            log.fine("Fetching feed data with conditional GET: " + feedRefresh.url);
             URLConnection urlConnection = feedSource.openConnection();
             urlConnection.setConnectTimeout(10000);
             urlConnection.setReadTimeout(10000);
+            setConditionalHeaders(urlConnection, feedRefresh);
 
             // This connects to the server!
-            etag = urlConnection.getHeaderField("ETag");
-            if (etag == null)
-                etag = FeedConfig.DEFAULT_LAST_REFRESH_ETAG;
-
-            SyndFeedInput input = new SyndFeedInput();
-            SyndFeed syndFeed = input.build(new XmlReader(urlConnection));
-            log.fine("Got feed data, converting...");
-
-            String feedLink = syndFeed.getLink() != null ? syndFeed.getLink() : feedRefresh.url;
-
-            Feed feed = createFeed(feedRefresh.id, feedLink, syndFeed);
-            log.fine("Have feed: " + feed.getValue(Feed.LINK));
-
-            if (feedRefresh.action.equals(RefreshAction.UPDATE)) {
-                log.fine("Updating existing feed in database with values: " + feed.INSTANCE.getEntityValues());
-
-                // Skip title, only inserted
-                // TODO: Title editing
-                // feed.INSTANCE.getEntityValues().remove(Feed.TITLE.getName());
-
-                getContentResolver().update(
-                   Uri.withAppendedPath(Feed.CONTENT_URI, Long.toString(feedRefresh.id)),
-                   feed.INSTANCE.getEntityValues(), null, null
-                );
-            } else if (feedRefresh.action.equals(RefreshAction.INSERT)) {
-                log.fine("Inserting new feed into database for feed config: " + feedRefresh.id);
-                getContentResolver().insert(
-                   Feed.CONTENT_URI, feed.INSTANCE.getEntityValues()
-                );
+            if (isNotModified(urlConnection)) {
+                log.fine("Feed data is not stale, skipping refresh: " + feedRefresh.url);
+                // Keep the validators we have, the server confirmed they are still current
+                fetch.etag = feedRefresh.lastRefreshEtag;
+                fetch.lastModified = feedRefresh.lastRefreshModified;
+                return fetch;
             }
 
-            List<FeedEntry> existingEntries = getExistingFeedEntries(feedRefresh.id);
-            log.fine("Existing feed entries: " + existingEntries.size());
+            String etag = urlConnection.getHeaderField("ETag");
+            if (etag != null)
+                fetch.etag = etag;
+            String lastModified = urlConnection.getHeaderField("Last-Modified");
+            if (lastModified != null)
+                fetch.lastModified = lastModified;
 
-            List<FeedEntry> newFeedEntries = new ArrayList<FeedEntry>();
-            for (Object o : syndFeed.getEntries()) {
-                SyndEntry syndEntry = (SyndEntry) o;
-                if (syndEntry.getLink() == null) {
-                    log.warning("Feed entry doesn't even have a link, skipping: " + syndEntry);
-                    continue;
-                }
-                FeedEntry fe = createFeedEntry(feedRefresh.id, syndEntry, currentTime);
-                newFeedEntries.add(fe);
+            XmlReader xmlReader = new XmlReader(urlConnection);
+            BufferedReader reader = new BufferedReader(
+                new XmlFixerReader(xmlReader), STREAMING_DETECT_LIMIT
+            );
+            try {
+                parseFeed(feedRefresh, reader, fetch, currentTime);
+            } finally {
+                reader.close();
             }
-            log.fine("New feed entries: " + newFeedEntries.size());
-
-            haveNewEntries = refreshFeedEntries(feedRefresh, existingEntries, newFeedEntries);
-
-            log.fine("Completed feed config refresh: " + feedRefresh.url);
+            log.fine(
+                "Got feed data: " + feedRefresh.url + ", decoded " + xmlReader.getCharsRead()
+                    + " chars of " + xmlReader.getEncoding()
+                    + " in " + (xmlReader.getDecodeNanos() / 1000000) + "ms"
+            );
 
         } catch (SocketTimeoutException timeoutEx) {
             log.warning("Timeout connecting to feed: " + feedRefresh.url + ", " + timeoutEx);
@@ -308,12 +410,161 @@ public class FeedRefreshService extends IntentService {
         } catch (FeedException fex) {
             log.warning("Could not marshall feed data: " + feedRefresh.url + ", " + fex);
             log.log(Level.WARNING, "Cause: " + Exceptions.unwrap(fex));
+        } catch (XmlPullParserException xppEx) {
+            log.warning("Could not parse feed data: " + feedRefresh.url + ", " + xppEx);
         } catch (Exception ex) {
-            log.log(Level.WARNING, "Error refreshing feed: " + feedRefresh.url + " - " + ex, ex);
+            log.log(Level.WARNING, "Error fetching feed: " + feedRefresh.url + " - " + ex, ex);
         }
+        return fetch;
+    }
+
+    /**
+     * Streams RSS 2.0 and Atom 1.0 entries straight into feed entries, other feed
+     * types are parsed with Rome. The reader must support mark/reset.
+     */
+    protected void parseFeed(final FeedRefresh feedRefresh, Reader reader, final FeedFetch fetch, final long currentTime)
+        throws IOException, XmlPullParserException, FeedException {
+
+        final List<FeedEntry> entries = new ArrayList<FeedEntry>();
+        StreamingFeedParser.EntryListener listener = new StreamingFeedParser.EntryListener() {
+            int knownEntries = 0;
+
+            @Override
+            public boolean entry(SyndEntry syndEntry) {
+                FeedEntry fe = addFeedEntry(feedRefresh, syndEntry, entries, currentTime);
+                if (fe == null || feedRefresh.knownEntries == null)
+                    return true;
+                Long knownContentHash = feedRefresh.knownEntries.get(fe.getValue(FeedEntry.LINK));
+                if (knownContentHash != null && knownContentHash.equals(fe.getValue(FeedEntry.CONTENT_HASH))) {
+                    knownEntries++;
+                } else {
+                    knownEntries = 0;
+                }
+                if (knownEntries >= INCREMENTAL_KNOWN_ENTRIES) {
+                    log.fine("Reached known entries, not parsing the rest of: " + feedRefresh.url);
+                    fetch.truncated = true;
+                    return false;
+                }
+                return true;
+            }
+        };
 
-        log.fine("Setting last refresh timestamp/etag of feed config: " + feedRefresh.id);
-        FeedConfig updatedFeedConfig = new FeedConfig(feedRefresh.id, System.currentTimeMillis(), etag);
+        reader.mark(STREAMING_DETECT_LIMIT);
+        SyndFeed syndFeed = new StreamingFeedParser().parse(reader, listener);
+        if (syndFeed == null) {
+            log.fine("Feed type can't be streamed, building complete feed: " + feedRefresh.url);
+            reader.reset();
+            SyndFeedInput input = new SyndFeedInput();
+            input.setXmlHealerOn(false); // Already fixed
+            input.setLazyEntries(true); // Entries after the known ones are never converted
+            syndFeed = input.build(reader);
+            for (Object o : syndFeed.getEntries()) {
+                if (!listener.entry((SyndEntry) o))
+                    break;
+            }
+        }
+
+        String feedLink = syndFeed.getLink() != null ? syndFeed.getLink() : feedRefresh.url;
+        fetch.feed = createFeed(feedRefresh.id, feedLink, syndFeed);
+        fetch.entries = entries;
+    }
+
+    protected FeedEntry addFeedEntry(FeedRefresh feedRefresh, SyndEntry syndEntry, List<FeedEntry> entries, long currentTime) {
+        if (syndEntry.getLink() == null) {
+            log.warning("Feed entry doesn't even have a link, skipping: " + syndEntry);
+            return null;
+        }
+        FeedEntry fe = createFeedEntry(feedRefresh.id, syndEntry, currentTime);
+        entries.add(fe);
+        return fe;
+    }
+
+    /**
+     * Expired entries are only deleted if they are no longer in the feed, this requires
+     * parsing the whole feed. If no entry is expired, a feed can be parsed incrementally.
+     */
+    protected Map<String, Long> getKnownEntries(FeedRefresh feedRefresh) {
+        List<FeedEntry> existingEntries = getExistingFeedEntries(feedRefresh.id);
+        Map<String, Long> knownEntries = new HashMap<String, Long>(existingEntries.size() * 2);
+        for (FeedEntry fe : existingEntries) {
+            if (fe.isExpired(feedRefresh.maxAgeDays)) {
+                log.fine("Feed has expired entries, must parse all entries: " + feedRefresh.url);
+                return null;
+            }
+            knownEntries.put(fe.getValue(FeedEntry.LINK), fe.getValue(FeedEntry.CONTENT_HASH));
+        }
+        return knownEntries;
+    }
+
+    /**
+     * Called only by the refresh thread, the single writer of feed data.
+     */
+    protected boolean storeFeed(FeedFetch fetch) {
+
+        boolean haveNewEntries = false;
+        FeedRefresh feedRefresh = fetch.refresh;
+
+        // Keep the validators we have unless the new feed data was stored, or the next
+        // conditional GET gets a 304 and data we failed to parse or store is never read again
+        String etag = feedRefresh.lastRefreshEtag;
+        String lastModified = feedRefresh.lastRefreshModified;
+
+        if (fetch.feed != null) {
+            try {
+                Feed feed = fetch.feed;
+                log.fine("Have feed: " + feed.getValue(Feed.LINK));
+
+                // The feed and all its entries are written in a single transaction
+                ArrayList<ContentProviderOperation> operations = new ArrayList<ContentProviderOperation>();
+
+                if (feedRefresh.action.equals(RefreshAction.UPDATE)) {
+                    log.fine("Updating existing feed in database with values: " + feed.INSTANCE.getEntityValues());
+
+                    // Skip title, only inserted
+                    // TODO: Title editing
+                    // feed.INSTANCE.getEntityValues().remove(Feed.TITLE.getName());
+
+                    if (fetch.truncated) {
+                        // Feed properties after the last parsed entry haven't been read, keep what we have
+                        removeDefaultValues(feed);
+                    }
+
+                    operations.add(
+                        ContentProviderOperation.newUpdate(
+                            Uri.withAppendedPath(Feed.CONTENT_URI, Long.toString(feedRefresh.id))
+                        ).withValues(feed.INSTANCE.getEntityValues()).build()
+                    );
+                } else if (feedRefresh.action.equals(RefreshAction.INSERT)) {
+                    log.fine("Inserting new feed into database for feed config: " + feedRefresh.id);
+                    operations.add(
+                        ContentProviderOperation.newInsert(Feed.CONTENT_URI)
+                            .withValues(feed.INSTANCE.getEntityValues()).build()
+                    );
+                }
+
+                List<FeedEntry> existingEntries = getExistingFeedEntries(feedRefresh.id);
+                log.fine("Existing feed entries: " + existingEntries.size());
+
+                List<FeedEntry> newFeedEntries = fetch.entries;
+                log.fine("New feed entries: " + newFeedEntries.size());
+
+                haveNewEntries = refreshFeedEntries(feedRefresh, existingEntries, newFeedEntries, fetch.truncated, operations);
+
+                log.fine("Applying batch of database operations: " + operations.size());
+                getContentResolver().applyBatch(FeedContent.AUTHORITY, operations);
+                etag = fetch.etag;
+                lastModified = fetch.lastModified;
+
+                log.fine("Completed feed config refresh: " + feedRefresh.url);
+
+            } catch (Exception ex) {
+                log.log(Level.WARNING, "Error refreshing feed: " + feedRefresh.url + " - " + ex, ex);
+            }
+        }
+
+        log.fine("Setting last refresh timestamp/validators of feed config: " + feedRefresh.id);
+        FeedConfig updatedFeedConfig =
+            new FeedConfig(feedRefresh.id, System.currentTimeMillis(), etag, lastModified);
         getContentResolver().update(
            Uri.withAppendedPath(FeedConfig.CONTENT_URI, Long.toString(feedRefresh.id)),
            updatedFeedConfig.INSTANCE.getEntityValues(),
@@ -323,74 +574,66 @@ public class FeedRefreshService extends IntentService {
         return haveNewEntries;
     }
 
-    protected boolean refreshFeedEntries(FeedRefresh feedRefresh, List<FeedEntry> existingEntries, List<FeedEntry> newFeedEntries) {
+    protected boolean refreshFeedEntries(FeedRefresh feedRefresh,
+                                         List<FeedEntry> existingEntries,
+                                         List<FeedEntry> newFeedEntries,
+                                         boolean truncated,
+                                         List<ContentProviderOperation> operations) {
         List<FeedEntryRefresh> feedEntryRefreshList = new ArrayList<FeedEntryRefresh>();
 
         boolean haveNewEntries = false;
 
-        Iterator<FeedEntry> it = existingEntries.iterator();
-        while (it.hasNext()) {
-            FeedEntry fe = it.next();
-            // Remove expired entries but not if they are in the current feed
-            if (fe.isExpired(feedRefresh.maxAgeDays)) {
-                String existingLink = fe.getValue(FeedEntry.LINK);
-
-                boolean isStillPresent = false;
-                for (FeedEntry newEntry : newFeedEntries) {
-                    String newLink = newEntry.getValue(FeedEntry.LINK);
-                    if (newLink.equals(existingLink)) {
-                        isStillPresent = true;
-                        break;
-                    }
-                }
-                if (!isStillPresent) {
-                    log.fine("Existing feed entry is expired, deleting: " + fe.getId());
-                    FeedEntryRefresh feRefresh = new FeedEntryRefresh();
-                    feRefresh.entry = fe;
-                    feRefresh.action = RefreshAction.DELETE;
-                    feedEntryRefreshList.add(feRefresh);
-                    it.remove();
-                }
+        // We match entries by comparing their link, assuming this is the best key in RSS/atom
+        Set<String> newLinks = new HashSet<String>(newFeedEntries.size() * 2);
+        for (FeedEntry newEntry : newFeedEntries) {
+            newLinks.add(newEntry.getValue(FeedEntry.LINK));
+        }
+
+        Map<String, FeedEntry> existingEntriesByLink = new HashMap<String, FeedEntry>(existingEntries.size() * 2);
+        for (FeedEntry fe : existingEntries) {
+            String existingLink = fe.getValue(FeedEntry.LINK);
+            // Remove expired entries but not if they are in the current feed, or might be in
+            // the part of a truncated feed we didn't parse
+            if (!truncated && fe.isExpired(feedRefresh.maxAgeDays) && !newLinks.contains(existingLink)) {
+                log.fine("Existing feed entry is expired, deleting: " + fe.getId());
+                FeedEntryRefresh feRefresh = new FeedEntryRefresh();
+                feRefresh.entry = fe;
+                feRefresh.action = RefreshAction.DELETE;
+                feedEntryRefreshList.add(feRefresh);
+            } else if (!existingEntriesByLink.containsKey(existingLink)) {
+                existingEntriesByLink.put(existingLink, fe);
             }
         }
 
         for (FeedEntry fe : newFeedEntries) {
-            boolean haveExisting = false;
-
-            // We match entries by comparing their link, assuming this is the best key in RSS/atom
             String newLink = fe.getValue(FeedEntry.LINK);
-            for (FeedEntry existingEntry : existingEntries) {
-                String existingLink = existingEntry.getValue(FeedEntry.LINK);
-
-                if (existingLink.equals(newLink)) {
-                    long existingUpdatedDate = existingEntry.getValue(FeedEntry.UPDATED_DATE);
-                    long newUpdatedDate = fe.getValue(FeedEntry.UPDATED_DATE);
-                    if (newUpdatedDate > existingUpdatedDate) {
-                        log.fine("New feed data has newer update timestamp, updating existing data");
-                        FeedEntryRefresh feRefresh = new FeedEntryRefresh();
-                        fe.INSTANCE.getEntityValues().put(FeedEntry._ID.getName(), existingEntry.getId());
-
-                        // Keep the old polled and published dates, so we don't change the display order if an
-                        // entry was updated!
-                        fe.INSTANCE.getEntityValues().put(
-                            FeedEntry.POLLED_DATE.getName(),
-                            existingEntry.getValue(FeedEntry.POLLED_DATE)
-                        );
-                        fe.INSTANCE.getEntityValues().put(
-                            FeedEntry.PUBLISHED_DATE.getName(),
-                            existingEntry.getValue(FeedEntry.PUBLISHED_DATE)
-                        );
-
-                        feRefresh.entry = fe;
-                        feRefresh.action = RefreshAction.UPDATE;
-                        feedEntryRefreshList.add(feRefresh);
-                    }
-                    haveExisting = true;
-                    break;
-                }
-            }
+            FeedEntry existingEntry = existingEntriesByLink.get(newLink);
+
+            if (existingEntry != null) {
+                // Only write entries whose content changed, whatever their dates say
+                long existingContentHash = existingEntry.getValue(FeedEntry.CONTENT_HASH);
+                long newContentHash = fe.getValue(FeedEntry.CONTENT_HASH);
+                if (newContentHash != existingContentHash) {
+                    log.fine("New feed data has changed content, updating existing data");
+                    FeedEntryRefresh feRefresh = new FeedEntryRefresh();
+                    fe.INSTANCE.getEntityValues().put(FeedEntry._ID.getName(), existingEntry.getId());
+
+                    // Keep the old polled and published dates, so we don't change the display order if an
+                    // entry was updated!
+                    fe.INSTANCE.getEntityValues().put(
+                        FeedEntry.POLLED_DATE.getName(),
+                        existingEntry.getValue(FeedEntry.POLLED_DATE)
+                    );
+                    fe.INSTANCE.getEntityValues().put(
+                        FeedEntry.PUBLISHED_DATE.getName(),
+                        existingEntry.getValue(FeedEntry.PUBLISHED_DATE)
+                    );
 
-            if (!haveExisting) {
+                    feRefresh.entry = fe;
+                    feRefresh.action = RefreshAction.UPDATE;
+                    feedEntryRefreshList.add(feRefresh);
+                }
+            } else {
                 log.fine("Feed entry is new, inserting data: " + newLink);
                 haveNewEntries = true;
                 FeedEntryRefresh feRefresh = new FeedEntryRefresh();
@@ -402,32 +645,27 @@ public class FeedRefreshService extends IntentService {
 
         log.fine("Feed entry refresh items: " + feedEntryRefreshList.size());
         for (FeedEntryRefresh feedEntryRefresh : feedEntryRefreshList) {
-            refreshFeedEntry(feedEntryRefresh);
+            operations.add(createOperation(feedEntryRefresh));
         }
 
         return haveNewEntries;
     }
 
-    protected void refreshFeedEntry(FeedEntryRefresh feedEntryRefresh) {
+    protected ContentProviderOperation createOperation(FeedEntryRefresh feedEntryRefresh) {
         if (feedEntryRefresh.action.equals(RefreshAction.DELETE)) {
-            // TODO: Bulk delete this!
             log.fine("Deleting expired feed entry in database: " + feedEntryRefresh.entry.getId());
-            getContentResolver().delete(
-               Uri.withAppendedPath(FeedEntry.CONTENT_URI, Long.toString(feedEntryRefresh.entry.getId())),
-               null, null
-            );
+            return ContentProviderOperation.newDelete(
+               Uri.withAppendedPath(FeedEntry.CONTENT_URI, Long.toString(feedEntryRefresh.entry.getId()))
+            ).build();
         } else if (feedEntryRefresh.action.equals(RefreshAction.UPDATE)) {
             log.fine("Updating existing feed entry in database: " + feedEntryRefresh.entry.getId());
-            getContentResolver().update(
-               Uri.withAppendedPath(FeedEntry.CONTENT_URI, Long.toString(feedEntryRefresh.entry.getId())),
-               feedEntryRefresh.entry.INSTANCE.getEntityValues(),
-               null, null
-            );
-        } else if (feedEntryRefresh.action.equals(RefreshAction.INSERT)) {
+            return ContentProviderOperation.newUpdate(
+               Uri.withAppendedPath(FeedEntry.CONTENT_URI, Long.toString(feedEntryRefresh.entry.getId()))
+            ).withValues(feedEntryRefresh.entry.INSTANCE.getEntityValues()).build();
+        } else {
             log.fine("Inserting new feed entry into database");
-            getContentResolver().insert(
-               FeedEntry.CONTENT_URI, feedEntryRefresh.entry.INSTANCE.getEntityValues()
-            );
+            return ContentProviderOperation.newInsert(FeedEntry.CONTENT_URI)
+               .withValues(feedEntryRefresh.entry.INSTANCE.getEntityValues()).build();
         }
     }
 
@@ -452,6 +690,17 @@ public class FeedRefreshService extends IntentService {
         );
     }
 
+    protected void removeDefaultValues(Feed feed) {
+        ContentValues values = feed.INSTANCE.getEntityValues();
+        if (Feed.DEFAULT_TITLE.equals(values.getAsString(Feed.TITLE.getName())))
+            values.remove(Feed.TITLE.getName());
+        if (Feed.DEFAULT_DESCRIPTION.equals(values.getAsString(Feed.DESCRIPTION.getName())))
+            values.remove(Feed.DESCRIPTION.getName());
+        Long publishedDate = values.getAsLong(Feed.PUBLISHED_DATE.getName());
+        if (publishedDate != null && publishedDate == Feed.DEFAULT_DATE)
+            values.remove(Feed.PUBLISHED_DATE.getName());
+    }
+
     protected FeedEntry createFeedEntry(long id, SyndEntry syndEntry, long currentTime) {
         String descriptionType = null;
         String descriptionValue = null;
@@ -507,12 +756,13 @@ public class FeedRefreshService extends IntentService {
         List<FeedEntry> existingEntries = new ArrayList<FeedEntry>();
         Cursor cursor = null;
         try {
+            // Only what we need to match and order entries, not the joined full rows
             cursor = getContentResolver().query(
-               Uri.withAppendedPath(FeedEntry.CONTENT_URI_FOR_FEEDCONFIG, Long.toString(feedConfigId)),
+               Uri.withAppendedPath(FeedEntry.CONTENT_URI_KEY_FOR_FEEDCONFIG, Long.toString(feedConfigId)),
                null, null, null, null
             );
             while (cursor.moveToNext()) {
-                existingEntries.add(new FeedEntry(cursor));
+                existingEntries.add(FeedEntry.readKey(cursor));
             }
         } finally {
             if (cursor != null)
@@ -576,37 +826,22 @@ public class FeedRefreshService extends IntentService {
         manager.cancel(NOTIFICATION_NEW_ENTRIES);
     }
 
-    protected boolean isFeedDataStale(String url, long lastRefresh, String lastRefreshEtag) {
-        log.fine("Checking feed data staleness with HEAD request: " + url);
-        try {
-            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-            connection.setRequestMethod("HEAD");
-
-             // TODO: Android bug http://code.google.com/p/android/issues/detail?id=24672
-            connection.setRequestProperty("Accept-Encoding", "");
-
-            int responseCode = connection.getResponseCode();
-
-            if (responseCode != 200) {
-                log.fine("HEAD request for staleness check of '" + url + "' failed: " + responseCode);
-                return true;
-            }
-            long lastModified = connection.getLastModified();
-            String etag = connection.getHeaderField("ETag");
-            if (lastModified > 0) {
-                // Date based validation
-                return lastModified > lastRefresh;
-            } else if (etag != null) {
-                // Content based validation with ETag
-                return !etag.equals(lastRefreshEtag);
-            }
-            return true;
-        } catch (Exception ex) {
-            log.log(Level.FINE, "Error checking feed staleness of: " + url, ex);
-            return true;
+    protected void setConditionalHeaders(URLConnection connection, FeedRefresh feedRefresh) {
+        // Send the validators exactly as we received them, the server compares them, not our clock
+        if (feedRefresh.lastRefreshEtag != null && feedRefresh.lastRefreshEtag.length() > 0) {
+            connection.setRequestProperty("If-None-Match", feedRefresh.lastRefreshEtag);
         }
+        if (feedRefresh.lastRefreshModified != null && feedRefresh.lastRefreshModified.length() > 0) {
+            connection.setRequestProperty("If-Modified-Since", feedRefresh.lastRefreshModified);
+        }
+    }
+
+    protected boolean isNotModified(URLConnection connection) throws IOException {
+        if (!(connection instanceof HttpURLConnection))
+            return false;
+        int responseCode = ((HttpURLConnection) connection).getResponseCode();
+        log.fine("Conditional GET response code: " + responseCode);
+        return responseCode == HttpURLConnection.HTTP_NOT_MODIFIED;
     }
 
 }
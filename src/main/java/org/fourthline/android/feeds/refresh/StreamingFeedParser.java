@@ -0,0 +1,388 @@
+/*
+ * Copyright (C) 2012 4th Line GmbH, Switzerland
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.fourthline.android.feeds.refresh;
+
+import android.util.Xml;
+import com.sun.syndication.feed.atom.Content;
+import com.sun.syndication.feed.synd.SyndContent;
+import com.sun.syndication.feed.synd.SyndContentImpl;
+import com.sun.syndication.feed.synd.SyndEntry;
+import com.sun.syndication.feed.synd.SyndEntryImpl;
+import com.sun.syndication.feed.synd.SyndFeed;
+import com.sun.syndication.feed.synd.SyndFeedImpl;
+import com.sun.syndication.io.impl.DateParser;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Pull parser for RSS 2.0 and Atom 1.0 feeds, without building a document tree.
+ * <p>
+ * Entries are passed to the {@link EntryListener} as soon as their element has been
+ * read, only the properties we store are parsed, mapped like the Rome converters do.
+ * The listener can stop parsing, the rest of the document is then not read.
+ * Any other feed type or version is not parsed, so callers can fall back to Rome.
+ * </p>
+ */
+public class StreamingFeedParser {
+
+    final private static Logger log = Logger.getLogger(StreamingFeedParser.class.getName());
+
+    public static final String NAMESPACE_ATOM10 = "http://www.w3.org/2005/Atom";
+    public static final String NAMESPACE_DC = "http://purl.org/dc/elements/1.1/";
+    public static final String NAMESPACE_CONTENT = "http://purl.org/rss/1.0/modules/content/";
+
+    public interface EntryListener {
+        /**
+         * @return <code>false</code> to stop parsing, the feed properties after this entry are not read.
+         */
+        boolean entry(SyndEntry entry);
+    }
+
+    /**
+     * @return The feed properties without entries, or <code>null</code> if the document
+     *         is not an RSS 2.0 or Atom 1.0 feed and nothing but the root element was read.
+     */
+    public SyndFeed parse(Reader reader, EntryListener listener) throws XmlPullParserException, IOException {
+        XmlPullParser parser = Xml.newPullParser();
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(reader);
+
+        int event = parser.getEventType();
+        while (event != XmlPullParser.START_TAG && event != XmlPullParser.END_DOCUMENT) {
+            event = parser.next();
+        }
+        if (event == XmlPullParser.END_DOCUMENT)
+            return null;
+
+        if (isElement(parser, "", "rss") && "2.0".equals(trim(parser.getAttributeValue(null, "version")))) {
+            log.fine("Streaming RSS 2.0 feed");
+            return parseRSS(parser, listener);
+        } else if (isElement(parser, NAMESPACE_ATOM10, "feed")) {
+            log.fine("Streaming Atom 1.0 feed");
+            return parseAtom(parser, listener);
+        }
+        log.fine("Not a streamable feed, root element: {" + parser.getNamespace() + "}" + parser.getName());
+        return null;
+    }
+
+    protected SyndFeed parseRSS(XmlPullParser parser, EntryListener listener) throws XmlPullParserException, IOException {
+        SyndFeed feed = new SyndFeedImpl();
+        boolean havePubDate = false;
+        int depth = parser.getDepth();
+        while (nextChild(parser, depth)) {
+            if (!isElement(parser, "", "channel")) {
+                skip(parser);
+                continue;
+            }
+            int channelDepth = parser.getDepth();
+            while (nextChild(parser, channelDepth)) {
+                if (isElement(parser, "", "item")) {
+                    if (!listener.entry(parseRSSItem(parser)))
+                        return feed;
+                } else if (isElement(parser, "", "title")) {
+                    feed.setTitle(readText(parser));
+                } else if (isElement(parser, "", "link")) {
+                    feed.setLink(trim(readText(parser)));
+                } else if (isElement(parser, "", "description")) {
+                    feed.setDescription(readText(parser));
+                } else if (isElement(parser, "", "pubDate")) {
+                    feed.setPublishedDate(DateParser.parseDate(readText(parser)));
+                    havePubDate = true;
+                } else if (isElement(parser, "", "lastBuildDate")) {
+                    Date lastBuildDate = DateParser.parseDate(readText(parser));
+                    if (!havePubDate)
+                        feed.setPublishedDate(lastBuildDate); // Fallback, like the Rome converter
+                } else {
+                    skip(parser);
+                }
+            }
+        }
+        return feed;
+    }
+
+    protected SyndEntry parseRSSItem(XmlPullParser parser) throws XmlPullParserException, IOException {
+        SyndEntry entry = new SyndEntryImpl();
+        String link = null;
+        String guid = null;
+        boolean guidIsPermaLink = true;
+        String author = null;
+        String creator = null;
+        Date pubDate = null;
+        Date dcDate = null;
+        int depth = parser.getDepth();
+        while (nextChild(parser, depth)) {
+            if (isElement(parser, "", "title")) {
+                entry.setTitle(readText(parser));
+            } else if (isElement(parser, "", "link")) {
+                link = trim(readText(parser));
+            } else if (isElement(parser, "", "guid")) {
+                guidIsPermaLink = !"false".equalsIgnoreCase(trim(parser.getAttributeValue(null, "isPermaLink")));
+                guid = trim(readText(parser));
+            } else if (isElement(parser, "", "description")) {
+                entry.setDescription(createContent("text/html", readText(parser)));
+            } else if (isElement(parser, "", "pubDate")) {
+                pubDate = DateParser.parseDate(readText(parser));
+            } else if (isElement(parser, "", "author")) {
+                author = readText(parser);
+            } else if (isElement(parser, NAMESPACE_DC, "creator")) {
+                creator = readText(parser);
+            } else if (isElement(parser, NAMESPACE_DC, "date")) {
+                dcDate = DateParser.parseDate(readText(parser));
+            } else if (isElement(parser, NAMESPACE_CONTENT, "encoded")) {
+                List<SyndContent> contents = new ArrayList<SyndContent>(1);
+                contents.add(createContent(com.sun.syndication.feed.rss.Content.HTML, readText(parser)));
+                entry.setContents(contents);
+            } else {
+                skip(parser);
+            }
+        }
+        if (link == null && guid != null && guidIsPermaLink)
+            link = guid;
+        entry.setLink(link);
+        entry.setAuthor(creator != null ? creator : author);
+        entry.setPublishedDate(pubDate != null ? pubDate : dcDate);
+        return entry;
+    }
+
+    protected SyndFeed parseAtom(XmlPullParser parser, EntryListener listener) throws XmlPullParserException, IOException {
+        SyndFeed feed = new SyndFeedImpl();
+        int depth = parser.getDepth();
+        while (nextChild(parser, depth)) {
+            if (isElement(parser, NAMESPACE_ATOM10, "entry")) {
+                if (!listener.entry(parseAtomEntry(parser)))
+                    return feed;
+            } else if (isElement(parser, NAMESPACE_ATOM10, "title")) {
+                feed.setTitle(readAtomText(parser).getValue());
+            } else if (isElement(parser, NAMESPACE_ATOM10, "subtitle")) {
+                feed.setDescription(readAtomText(parser).getValue());
+            } else if (isElement(parser, NAMESPACE_ATOM10, "link")) {
+                if (feed.getLink() == null && isAlternateLink(parser))
+                    feed.setLink(trim(parser.getAttributeValue(null, "href")));
+                skip(parser);
+            } else if (isElement(parser, NAMESPACE_ATOM10, "updated")) {
+                feed.setPublishedDate(DateParser.parseDate(readText(parser)));
+            } else {
+                skip(parser);
+            }
+        }
+        return feed;
+    }
+
+    protected SyndEntry parseAtomEntry(XmlPullParser parser) throws XmlPullParserException, IOException {
+        SyndEntry entry = new SyndEntryImpl();
+        int depth = parser.getDepth();
+        while (nextChild(parser, depth)) {
+            if (isElement(parser, NAMESPACE_ATOM10, "title")) {
+                entry.setTitle(readAtomText(parser).getValue());
+            } else if (isElement(parser, NAMESPACE_ATOM10, "link")) {
+                if (entry.getLink() == null && isAlternateLink(parser))
+                    entry.setLink(trim(parser.getAttributeValue(null, "href")));
+                skip(parser);
+            } else if (isElement(parser, NAMESPACE_ATOM10, "summary")) {
+                entry.setDescription(readAtomText(parser));
+            } else if (isElement(parser, NAMESPACE_ATOM10, "content")) {
+                List<SyndContent> contents = new ArrayList<SyndContent>(1);
+                contents.add(readAtomText(parser));
+                entry.setContents(contents);
+            } else if (isElement(parser, NAMESPACE_ATOM10, "published")) {
+                entry.setPublishedDate(DateParser.parseDate(readText(parser)));
+            } else if (isElement(parser, NAMESPACE_ATOM10, "updated")) {
+                entry.setUpdatedDate(DateParser.parseDate(readText(parser)));
+            } else if (isElement(parser, NAMESPACE_ATOM10, "author")) {
+                String name = readAtomPersonName(parser);
+                if (entry.getAuthor() == null)
+                    entry.setAuthor(name);
+            } else {
+                skip(parser);
+            }
+        }
+        return entry;
+    }
+
+    protected String readAtomPersonName(XmlPullParser parser) throws XmlPullParserException, IOException {
+        String name = null;
+        int depth = parser.getDepth();
+        while (nextChild(parser, depth)) {
+            if (isElement(parser, NAMESPACE_ATOM10, "name")) {
+                name = readText(parser);
+            } else {
+                skip(parser);
+            }
+        }
+        return name;
+    }
+
+    protected SyndContent readAtomText(XmlPullParser parser) throws XmlPullParserException, IOException {
+        String type = trim(parser.getAttributeValue(null, "type"));
+        if (type == null)
+            type = Content.TEXT;
+        String value = isMarkupType(type) ? readMarkup(parser) : readText(parser);
+        return createContent(type, value);
+    }
+
+    /**
+     * Same test as Rome's Atom 1.0 parser, XHTML and any XML media type are read as markup.
+     */
+    protected boolean isMarkupType(String type) {
+        return Content.XHTML.equals(type) || type.indexOf("/xml") != -1 || type.indexOf("+xml") != -1;
+    }
+
+    protected boolean isAlternateLink(XmlPullParser parser) {
+        String rel = trim(parser.getAttributeValue(null, "rel"));
+        return rel == null || "alternate".equals(rel);
+    }
+
+    protected SyndContent createContent(String type, String value) {
+        SyndContent content = new SyndContentImpl();
+        content.setType(type);
+        content.setValue(value);
+        return content;
+    }
+
+    /**
+     * Advances to the next child element of the element at the given depth.
+     *
+     * @return <code>false</code> when the end tag of the element at the given depth has been reached.
+     */
+    protected boolean nextChild(XmlPullParser parser, int depth) throws XmlPullParserException, IOException {
+        while (true) {
+            int event = parser.next();
+            if (event == XmlPullParser.START_TAG)
+                return true;
+            if (event == XmlPullParser.END_DOCUMENT
+                || (event == XmlPullParser.END_TAG && parser.getDepth() == depth))
+                return false;
+        }
+    }
+
+    /**
+     * Reads the text content of the current element, including the text of nested elements.
+     */
+    protected String readText(XmlPullParser parser) throws XmlPullParserException, IOException {
+        StringBuilder text = new StringBuilder();
+        int depth = parser.getDepth();
+        while (true) {
+            int event = parser.next();
+            if (event == XmlPullParser.TEXT) {
+                text.append(parser.getText());
+            } else if (event == XmlPullParser.END_DOCUMENT
+                || (event == XmlPullParser.END_TAG && parser.getDepth() == depth)) {
+                return text.toString();
+            }
+        }
+    }
+
+    /**
+     * Reads the content of the current element as XML markup, for XHTML text constructs.
+     */
+    protected String readMarkup(XmlPullParser parser) throws XmlPullParserException, IOException {
+        StringBuilder markup = new StringBuilder();
+        int depth = parser.getDepth();
+        // The start tag is closed when we know if the element is empty, then written as <x/>
+        boolean open = false;
+        while (true) {
+            int event = parser.next();
+            if (open && event != XmlPullParser.END_TAG) {
+                markup.append('>');
+                open = false;
+            }
+            if (event == XmlPullParser.START_TAG) {
+                markup.append('<');
+                appendQualifiedName(markup, parser.getPrefix(), parser.getName());
+                for (int i = 0; i < parser.getAttributeCount(); i++) {
+                    markup.append(' ');
+                    appendQualifiedName(markup, parser.getAttributePrefix(i), parser.getAttributeName(i));
+                    markup.append("=\"");
+                    escape(markup, parser.getAttributeValue(i));
+                    markup.append('"');
+                }
+                open = true;
+            } else if (event == XmlPullParser.TEXT) {
+                escape(markup, parser.getText());
+            } else if (event == XmlPullParser.END_DOCUMENT
+                || (event == XmlPullParser.END_TAG && parser.getDepth() == depth)) {
+                return markup.toString();
+            } else if (event == XmlPullParser.END_TAG) {
+                if (open) {
+                    markup.append("/>");
+                    open = false;
+                } else {
+                    markup.append("</");
+                    appendQualifiedName(markup, parser.getPrefix(), parser.getName());
+                    markup.append('>');
+                }
+            }
+        }
+    }
+
+    protected void appendQualifiedName(StringBuilder sb, String prefix, String name) {
+        if (prefix != null)
+            sb.append(prefix).append(':');
+        sb.append(name);
+    }
+
+    protected void skip(XmlPullParser parser) throws XmlPullParserException, IOException {
+        int depth = parser.getDepth();
+        while (true) {
+            int event = parser.next();
+            if (event == XmlPullParser.END_DOCUMENT
+                || (event == XmlPullParser.END_TAG && parser.getDepth() == depth))
+                return;
+        }
+    }
+
+    protected boolean isElement(XmlPullParser parser, String namespace, String name) {
+        return name.equals(parser.getName()) && namespace.equals(parser.getNamespace());
+    }
+
+    protected void escape(StringBuilder sb, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+
+    protected String trim(String s) {
+        if (s == null)
+            return null;
+        s = s.trim();
+        return s.length() > 0 ? s : null;
+    }
+}
@@ -43,7 +43,9 @@ import org.fourthline.android.feeds.refresh.FeedRefreshService;
 import org.fourthline.android.feeds.database.PersistentEntity;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
 
 public class FeedWidgetProvider extends AppWidgetProvider {
@@ -55,6 +57,7 @@ public class FeedWidgetProvider extends AppWidgetProvider {
     public static final String ACTION_FEEDWIDGET_MARKREAD = "feed.FEEDWIDGET_MARKREAD";
     public static final String ACTION_FEEDWIDGET_CLICK_ENTRY = "feed.FEEDWIDGET_CLICK_ENTRY";
     public static final String EXTRA_FEEDENTRY_ID = "FEEDENTRY_ID";
+    public static final String EXTRA_FEEDCONFIG_IDS = "FEEDCONFIG_IDS";
 
     @Override
     public void onReceive(Context context, Intent intent) {
@@ -71,6 +74,9 @@ public class FeedWidgetProvider extends AppWidgetProvider {
             int[] widgetIds = manager.getAppWidgetIds(
                 new ComponentName(context, FeedWidgetProvider.class)
             );
+            if (intent.getExtras() != null && intent.getExtras().containsKey(EXTRA_FEEDCONFIG_IDS)) {
+                widgetIds = filterWidgetIds(context, widgetIds, intent.getExtras().getLongArray(EXTRA_FEEDCONFIG_IDS));
+            }
             onUpdate(context, manager, widgetIds);
         } else if (ACTION_FEEDWIDGET_CLICK_ENTRY.equals(intent.getAction())) {
             showEntry(
@@ -274,6 +280,28 @@ public class FeedWidgetProvider extends AppWidgetProvider {
         return PendingIntent.getService(context, intent.hashCode(), intent, PendingIntent.FLAG_UPDATE_CURRENT);
     }
 
+    protected int[] filterWidgetIds(Context context, int[] widgetIds, long[] changedFeedConfigIds) {
+        Set<Long> changed = new HashSet<Long>();
+        for (long feedConfigId : changedFeedConfigIds) {
+            changed.add(feedConfigId);
+        }
+        List<Integer> filtered = new ArrayList<Integer>();
+        for (int widgetId : widgetIds) {
+            for (long feedConfigId : queryFeedConfigIds(context, widgetId)) {
+                if (changed.contains(feedConfigId)) {
+                    filtered.add(widgetId);
+                    break;
+                }
+            }
+        }
+        log.fine("Widgets showing changed feed configs: " + filtered);
+        int[] result = new int[filtered.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = filtered.get(i);
+        }
+        return result;
+    }
+
     protected long[] queryFeedConfigIds(Context context, int widgetId) {
         Cursor c = null;
         try {
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2012 4th Line GmbH, Switzerland
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.fourthline.android.feeds.widget;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Coalesces data changes into a single widget update broadcast.
+ * <p>
+ * The first change starts a time window, all feed configs changed until the window
+ * closes are sent with one {@link FeedWidgetProvider#ACTION_FEEDWIDGET_UPDATE_ALL}
+ * broadcast. The widget provider then only updates widgets showing these feeds. If
+ * a change can't be attributed to a feed config, all widgets are updated.
+ * </p>
+ */
+public class FeedWidgetUpdater {
+
+    final private static Logger log = Logger.getLogger(FeedWidgetUpdater.class.getName());
+
+    public static final long DEFAULT_WINDOW_MILLIS = 1000;
+
+    protected final Context context;
+    protected final long windowMillis;
+    protected final Handler handler = new Handler(Looper.getMainLooper());
+
+    /* The following members are guarded by this instance */
+    protected final Set<Long> changedFeedConfigIds = new HashSet<Long>();
+    protected boolean allChanged = false;
+    protected boolean pending = false;
+
+    protected final Runnable sendUpdate = new Runnable() {
+        @Override
+        public void run() {
+            sendUpdate();
+        }
+    };
+
+    public FeedWidgetUpdater(Context context) {
+        this(context, DEFAULT_WINDOW_MILLIS);
+    }
+
+    public FeedWidgetUpdater(Context context, long windowMillis) {
+        this.context = context;
+        this.windowMillis = windowMillis;
+    }
+
+    synchronized public void feedConfigChanged(long feedConfigId) {
+        changedFeedConfigIds.add(feedConfigId);
+        schedule();
+    }
+
+    synchronized public void feedConfigsChanged(Collection<Long> feedConfigIds) {
+        changedFeedConfigIds.addAll(feedConfigIds);
+        schedule();
+    }
+
+    synchronized public void allChanged() {
+        allChanged = true;
+        schedule();
+    }
+
+    protected void schedule() {
+        if (pending)
+            return;
+        pending = true;
+        handler.postDelayed(sendUpdate, windowMillis);
+    }
+
+    protected void sendUpdate() {
+        Intent update = new Intent();
+        update.setAction(FeedWidgetProvider.ACTION_FEEDWIDGET_UPDATE_ALL);
+        synchronized (this) {
+            if (!allChanged) {
+                long[] ids = new long[changedFeedConfigIds.size()];
+                int i = 0;
+                for (Long id : changedFeedConfigIds) {
+                    ids[i++] = id;
+                }
+                update.putExtra(FeedWidgetProvider.EXTRA_FEEDCONFIG_IDS, ids);
+            }
+            log.fine("Sending FeedWidget UPDATE_ALL broadcast, all feeds changed: " + allChanged
+                + ", changed feed configs: " + changedFeedConfigIds);
+            changedFeedConfigIds.clear();
+            allChanged = false;
+            pending = false;
+        }
+        context.sendBroadcast(update);
+    }
+}
@@ -23,7 +23,6 @@ import android.content.Intent;
 import android.database.Cursor;
 import android.graphics.Typeface;
 import android.net.Uri;
-import android.text.Html;
 import android.text.SpannableString;
 import android.text.style.StyleSpan;
 import android.view.View;
@@ -111,8 +110,7 @@ public class FeedWidgetViewsService extends RemoteViewsService {
                 FeedEntry entry = new FeedEntry(cursor);
 
                 // Build the headline
-                String headline = entry.getValue(FeedEntry.TITLE);
-                headline = Html.fromHtml(headline).toString(); // Resolve HTML entities
+                String headline = DataType.read(cursor, FeedEntry.TITLE_TEXT, FeedEntry.ALIAS_PREFIX);
 
                 String prefix = null;
                 Enum<FeedConfig.EntryPrefix> entryPrefix = DataType.read(cursor, FeedConfig.ENTRY_PREFIX, FeedConfig.ALIAS_PREFIX);
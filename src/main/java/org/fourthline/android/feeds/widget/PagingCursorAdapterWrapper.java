@@ -44,6 +44,8 @@ public abstract class PagingCursorAdapterWrapper<T extends CursorAdapter> extend
     protected AtomicBoolean requiresRefresh = new AtomicBoolean(false);
     /* The following members are only ever accessed by a single (UI) thread */
     protected int currentOffset = 0;
+    protected String[] lastKey = null;
+    protected int pendingQueries = 0;
     protected List<Cursor> cursors = new ArrayList<Cursor>();
 
     public PagingCursorAdapterWrapper(int pageSize, Context context, int pendingResource, T cursorAdapter) {
@@ -131,10 +133,18 @@ public abstract class PagingCursorAdapterWrapper<T extends CursorAdapter> extend
     }
 
     protected void executeQueryInBackground(boolean reset) {
+        if (!reset && pendingQueries > 0) {
+            // The next page can only be keyed when the previous page has been loaded
+            log.fine("Query task already pending, not loading next page");
+            return;
+        }
         log.fine("Executing query task in background, reset: " + reset);
-        if (reset)
+        if (reset) {
             currentOffset = 0;
-        PagingQueryParameters params = new PagingQueryParameters(reset, pageSize, currentOffset);
+            lastKey = null;
+        }
+        PagingQueryParameters params = new PagingQueryParameters(reset, pageSize, currentOffset, lastKey);
+        pendingQueries++;
         currentOffset = currentOffset + pageSize; // Increment "after" querying
         new QueryTask().execute(params);
     }
@@ -147,16 +157,28 @@ public abstract class PagingCursorAdapterWrapper<T extends CursorAdapter> extend
 
     protected abstract Cursor executeQuery(PagingQueryParameters params);
 
+    /**
+     * Override to page with the ordering key of the last loaded row instead of an offset.
+     *
+     * @return The ordering key of the current row, or <code>null</code> for offset paging.
+     */
+    protected String[] getPageKey(Cursor cursor) {
+        return null;
+    }
+
     public class PagingQueryParameters {
 
         public boolean reset;
         public int limit;
         public int offset;
+        public String[] lastKey; // Key of the last row of the previous page, null on the first page
+        String[] nextKey;
 
-        PagingQueryParameters(boolean reset, int limit, int offset) {
+        PagingQueryParameters(boolean reset, int limit, int offset, String[] lastKey) {
             this.reset = reset;
             this.limit = limit;
             this.offset = offset;
+            this.lastKey = lastKey;
         }
     }
 
@@ -181,6 +203,11 @@ public abstract class PagingCursorAdapterWrapper<T extends CursorAdapter> extend
                 log.fine("Obtained cursor, is more data possibly available: " + moreDataAvailable);
                 continueLoading.set(moreDataAvailable);
 
+                if (cursor.moveToLast()) {
+                    params.nextKey = getPageKey(cursor);
+                    cursor.moveToPosition(-1);
+                }
+
                 return cursor;
             } catch (Exception ex) {
                 log.warning("Error executing query: " + ex);
@@ -191,6 +218,7 @@ public abstract class PagingCursorAdapterWrapper<T extends CursorAdapter> extend
         @Override
         protected void onPostExecute(Cursor cursor) {
             super.onPostExecute(cursor);
+            pendingQueries--;
 
             // Reset as late as possible, otherwise the idiotic "empty view" is shown
             if (params.reset) {
@@ -204,6 +232,8 @@ public abstract class PagingCursorAdapterWrapper<T extends CursorAdapter> extend
             if (cursor != null) {
                 log.fine("Merging query result cursor with existing cursors");
                 cursors.add(cursor);
+                if (params.nextKey != null)
+                    lastKey = params.nextKey;
                 getWrappedAdapter().swapCursor(new MergeCursor(cursors.toArray(new Cursor[cursors.size()])));
             }
 